@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.benchmarks;
+
+import com.jbuncle.mysqlsynchroniser.structure.SchemaGenerator;
+import com.jbuncle.mysqlsynchroniser.structure.diff.DatabaseDiff;
+import com.jbuncle.mysqlsynchroniser.structure.diff.TableDiff;
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.AlterSpecification;
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.ColumnStatementStrategy;
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.DiffBuilder;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks diffing and statement generation over generated schemas, where a tenth of the tables differ.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DiffBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int tables;
+
+    private Database source;
+    private Database target;
+
+    @Setup
+    public void setUp() {
+        final SchemaGenerator generator = new SchemaGenerator(1);
+        generator.setTableCount(tables);
+        this.source = generator.generate();
+        this.target = generator.mutate(this.source);
+    }
+
+    /**
+     * Creates a shallow copy of the database, as {@link DatabaseDiff} removes tables from the target as it goes.
+     */
+    private static Database copy(final Database database) {
+        return new Database(
+                new LinkedHashMap<>(database.getTables()),
+                new LinkedHashMap<>(database.getViews()));
+    }
+
+    @Benchmark
+    public void generateStatements(final Blackhole blackhole) {
+        for (final Table sourceTable : source.getTables().values()) {
+            final Table targetTable = target.getTables().get(sourceTable.getTableName());
+            if (targetTable == null) {
+                continue;
+            }
+            final DiffBuilder<Column> diffBuilder
+                    = new DiffBuilder<>(new ColumnStatementStrategy(sourceTable, targetTable));
+            diffBuilder.addAllTo(sourceTable.getColumns());
+            diffBuilder.addAllFrom(targetTable.getColumns());
+            final List<AlterSpecification> specifications = diffBuilder.generateStatements();
+            blackhole.consume(specifications);
+        }
+    }
+
+    @Benchmark
+    public void tableDiff(final Blackhole blackhole) {
+        for (final Table sourceTable : source.getTables().values()) {
+            final Table targetTable = target.getTables().get(sourceTable.getTableName());
+            if (targetTable == null) {
+                continue;
+            }
+            blackhole.consume(TableDiff.diff(sourceTable, targetTable));
+        }
+    }
+
+    @Benchmark
+    public List<String> databaseDiff() {
+        return new DatabaseDiff(source, copy(target)).diff();
+    }
+
+    @Benchmark
+    public List<String> createStatements() {
+        //Every table is missing, so every CREATE TABLE is rendered from the model
+        return SchemaGenerator.getCreateStatements(source);
+    }
+
+    @Benchmark
+    public boolean databaseEquals() {
+        return source.equals(copy(source));
+    }
+}
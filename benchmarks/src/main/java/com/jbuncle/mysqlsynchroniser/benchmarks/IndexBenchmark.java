@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.benchmarks;
+
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing and rendering indexes.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IndexBenchmark {
+
+    private Index index;
+    private Index same;
+    private Index reordered;
+
+    @Setup
+    public void setUp() {
+        this.index = new Index("pet", true, "owner", Arrays.asList("owner", "name", "species", "birth"));
+        this.same = new Index("pet", true, "owner", Arrays.asList("owner", "name", "species", "birth"));
+        this.reordered = new Index("pet", true, "owner", Arrays.asList("birth", "species", "name", "owner"));
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        //As compared by DiffBuilder
+        return index.equals((Object) same);
+    }
+
+    @Benchmark
+    public boolean equalsReordered() {
+        return index.equals((Object) reordered);
+    }
+
+    @Benchmark
+    public boolean definitionEqualsReordered() {
+        return index.equals(reordered);
+    }
+
+    @Benchmark
+    public String createStatement() {
+        return index.getCreateStatement();
+    }
+}
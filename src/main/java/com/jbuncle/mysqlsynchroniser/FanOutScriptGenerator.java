@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser;
+
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.util.FutureUtils;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+
+/**
+ * Diffs one source schema against many targets, loading the source once and
+ * loading and diffing a number of targets at a time. Tables missing from a
+ * target are created from the loaded source model, so the source is only
+ * queried once.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class FanOutScriptGenerator {
+
+    private final DataSource source;
+    private final int parallelism;
+
+    /**
+     *
+     * @param source the datasource used as the source
+     * @param parallelism the number of targets to load and diff at once
+     */
+    public FanOutScriptGenerator(final DataSource source, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.source = source;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Generates the MySQL statements to update each target to the source schema, passing each target's statements
+     * (or failure) to the handler as it completes.
+     *
+     * The handler is only called from the calling thread. A failure on one target doesn't stop the others.
+     *
+     * @param targets the target datasources to create update statements for
+     * @param handler the handler given each target's result
+     * @throws SQLException if the source schema couldn't be loaded
+     */
+    public void compareSchemas(
+            final Collection<? extends DataSource> targets,
+            final TargetDiffHandler handler)
+            throws SQLException {
+
+        final Database sourceDatabase = ScriptGenerator.loadDatabase(source);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, targets.size())));
+        try {
+            final CompletionService<TargetResult> completionService = new ExecutorCompletionService<>(executor);
+            for (final DataSource target : targets) {
+                completionService.submit(new DiffTargetTask(sourceDatabase, target));
+            }
+            for (int i = 0; i < targets.size(); i++) {
+                final TargetResult result = FutureUtils.take(completionService);
+                if (result.failure == null) {
+                    handler.handleDiff(result.target, result.statements);
+                } else {
+                    handler.handleFailure(result.target, result.failure);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class TargetResult {
+
+        private final DataSource target;
+        private final List<String> statements;
+        private final Exception failure;
+
+        public TargetResult(final DataSource target, final List<String> statements, final Exception failure) {
+            this.target = target;
+            this.statements = statements;
+            this.failure = failure;
+        }
+
+    }
+
+    private class DiffTargetTask implements Callable<TargetResult> {
+
+        private final Database sourceDatabase;
+        private final DataSource target;
+
+        public DiffTargetTask(final Database sourceDatabase, final DataSource target) {
+            this.sourceDatabase = sourceDatabase;
+            this.target = target;
+        }
+
+        @Override
+        public TargetResult call() {
+            try {
+                final List<String> statements = ScriptGenerator.compareSchema(sourceDatabase, null, target);
+                return new TargetResult(target, statements, null);
+            } catch (SQLException | RuntimeException ex) {
+                return new TargetResult(target, null, ex);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser;
+
+import com.jbuncle.mysqlsynchroniser.connection.SessionConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.structure.MySQL;
+import com.jbuncle.mysqlsynchroniser.structure.diff.DatabaseDiff;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementList;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementSink;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.View;
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.sql.DataSource;
+
+/**
+ * Diffs the same source and target repeatedly (e.g. after every commit in CI), recording each table's structural
+ * fingerprints and statements in a state file so later runs only reload and re-diff the tables that have changed on
+ * either side since.
+ *
+ * Tables missing from the target are always re-diffed, as their CREATE TABLE statements include the options,
+ * foreign keys and AUTO_INCREMENT counter that the fingerprints don't cover.
+ *
+ * Use a state file per source and target pair.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ * @see MySQL#loadTableFingerprints()
+ */
+public class IncrementalScriptGenerator {
+
+    private final File stateFile;
+
+    /**
+     *
+     * @param stateFile the file the table state is kept in between runs, created on the first run
+     */
+    public IncrementalScriptGenerator(final File stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Generates a List of MySQL Statements to update/synchronise the given target database structure based on the
+     * source database.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @return a list MySQL statements created by comparing the source schema to the target schema
+     * @throws SQLException
+     * @throws IOException if the state file can't be read or written
+     */
+    public List<String> compareSchema(final DataSource source, final DataSource target)
+            throws SQLException, IOException {
+        final StatementList statements = new StatementList();
+        compareSchema(source, target, statements);
+        return statements;
+    }
+
+    /**
+     * Writes the MySQL Statements to update/synchronise the given target database structure based on the source
+     * database to the given sink, ordered by table name and followed by the view statements. The state file is only
+     * updated once all the statements have been written.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @param sink the sink to write the statements to
+     * @throws SQLException
+     * @throws IOException if the state file can't be read or written
+     */
+    public void compareSchema(final DataSource source, final DataSource target, final StatementSink sink)
+            throws SQLException, IOException {
+        final IncrementalState previous = IncrementalState.load(stateFile);
+        final IncrementalState next = new IncrementalState();
+
+        try (final SessionConnectionStrategy sourceSession = new SessionConnectionStrategy(source);
+                final SessionConnectionStrategy targetSession = new SessionConnectionStrategy(target)) {
+            final MySQL sourceMySQL = new MySQL(sourceSession);
+            final MySQL targetMySQL = new MySQL(targetSession);
+            final Map<String, String> sourceFingerprints = sourceMySQL.loadTableFingerprints();
+            final Map<String, String> targetFingerprints = targetMySQL.loadTableFingerprints();
+
+            final Set<String> tableNames = new TreeSet<>(sourceFingerprints.keySet());
+            tableNames.addAll(targetFingerprints.keySet());
+            for (final String tableName : tableNames) {
+                final String sourceFingerprint = sourceFingerprints.get(tableName);
+                final String targetFingerprint = targetFingerprints.get(tableName);
+                final boolean create = targetFingerprint == null;
+                List<String> statements = create
+                        ? null
+                        : previous.getStatements(tableName, sourceFingerprint, targetFingerprint);
+                if (statements == null) {
+                    //Changed since the last run or missing from the target, so reload and diff. A missing table is
+                    //created from the model, so needs its options and foreign keys too
+                    final Table sourceTable;
+                    if (sourceFingerprint == null) {
+                        sourceTable = null;
+                    } else if (create) {
+                        sourceTable = sourceMySQL.loadTableDefinition(tableName);
+                    } else {
+                        sourceTable = sourceMySQL.loadTable(tableName);
+                    }
+                    final Table targetTable = targetFingerprint == null ? null : targetMySQL.loadTable(tableName);
+                    final DatabaseDiff diff = new DatabaseDiff(
+                            createDatabase(sourceTable, new HashMap<String, View>()),
+                            createDatabase(targetTable, new HashMap<String, View>()));
+                    final StatementList tableStatements = new StatementList();
+                    //Rendered from the loaded tables rather than opening another source session per table
+                    diff.diff(null, null, tableStatements);
+                    statements = tableStatements;
+                }
+                for (final String statement : statements) {
+                    sink.append(statement);
+                }
+                if (!create) {
+                    next.put(tableName, sourceFingerprint, targetFingerprint, statements);
+                }
+            }
+
+            //Views aren't fingerprinted, but are few and cheap to compare
+            final DatabaseDiff viewDiff = new DatabaseDiff(
+                    createDatabase(null, sourceMySQL.loadViews()),
+                    createDatabase(null, targetMySQL.loadViews()));
+            viewDiff.diff(null, null, sink);
+        }
+        next.save(stateFile);
+    }
+
+    private static Database createDatabase(final Table table, final Map<String, View> views) {
+        final Map<String, Table> tables = new HashMap<>();
+        if (table != null) {
+            tables.put(table.getTableName(), table);
+        }
+        return new Database(tables, views);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * The per-table state recorded by an incremental diff: the source and target structural fingerprints each table
+ * was last diffed at, and the statements that diff produced.
+ *
+ * Stored as a properties file, e.g.
+ * <pre>
+ * table.pet.source=3:123:2:456
+ * table.pet.target=3:789:2:456
+ * table.pet.statements=1
+ * table.pet.statement.0=ALTER TABLE `pet` CHANGE ...;
+ * </pre>
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+class IncrementalState {
+
+    private static final String VERSION_KEY = "version";
+    private static final String VERSION = "1";
+    private static final String PREFIX = "table.";
+    private static final String STATEMENTS_SUFFIX = ".statements";
+
+    private final Map<String, Entry> entries;
+
+    public IncrementalState() {
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Loads the state from the given file.
+     *
+     * @param file the state file
+     * @return the state, which is empty if the file doesn't exist or is from a different version
+     * @throws IOException
+     */
+    public static IncrementalState load(final File file) throws IOException {
+        if (!file.exists()) {
+            return new IncrementalState();
+        }
+        try (final InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads the state from the given stream.
+     *
+     * @param in the stream to read from
+     * @return the state, which is empty if the stream is from a different version
+     * @throws IOException if the stream can't be read or a table's statements are missing
+     */
+    public static IncrementalState read(final InputStream in) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(in);
+        final IncrementalState state = new IncrementalState();
+        if (!VERSION.equals(properties.getProperty(VERSION_KEY))) {
+            return state;
+        }
+        for (final String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PREFIX) && key.endsWith(STATEMENTS_SUFFIX)) {
+                final String tableName = key.substring(PREFIX.length(), key.length() - STATEMENTS_SUFFIX.length());
+                final String tablePrefix = PREFIX + tableName;
+                final int count;
+                try {
+                    count = Integer.parseInt(properties.getProperty(key));
+                } catch (NumberFormatException ex) {
+                    throw new IOException("Invalid statement count for table `" + tableName + "`", ex);
+                }
+                if (count < 0) {
+                    throw new IOException("Invalid statement count for table `" + tableName + "`");
+                }
+                final List<String> statements = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    final String statement = properties.getProperty(tablePrefix + ".statement." + i);
+                    if (statement == null) {
+                        throw new IOException("Missing statement " + i + " of table `" + tableName + "`");
+                    }
+                    statements.add(statement);
+                }
+                state.put(tableName,
+                        properties.getProperty(tablePrefix + ".source"),
+                        properties.getProperty(tablePrefix + ".target"),
+                        statements);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Saves the state to the given file. It's written to a temporary file first and renamed over the old one, so an
+     * interrupted save leaves the previous state intact.
+     *
+     * @param file the state file
+     * @throws IOException
+     */
+    public void save(final File file) throws IOException {
+        final File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+                write(out);
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    public void write(final OutputStream out) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(VERSION_KEY, VERSION);
+        for (final Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            final String tablePrefix = PREFIX + mapEntry.getKey();
+            final Entry entry = mapEntry.getValue();
+            if (entry.sourceFingerprint != null) {
+                properties.setProperty(tablePrefix + ".source", entry.sourceFingerprint);
+            }
+            if (entry.targetFingerprint != null) {
+                properties.setProperty(tablePrefix + ".target", entry.targetFingerprint);
+            }
+            properties.setProperty(tablePrefix + STATEMENTS_SUFFIX, Integer.toString(entry.statements.size()));
+            for (int i = 0; i < entry.statements.size(); i++) {
+                properties.setProperty(tablePrefix + ".statement." + i, entry.statements.get(i));
+            }
+        }
+        properties.store(out, "MySQL Synchroniser incremental diff state");
+    }
+
+    /**
+     * Gets the statements from the last diff of the table, if neither side's fingerprint has changed since.
+     *
+     * @param tableName the table name
+     * @param sourceFingerprint the source table's fingerprint, or null if it's missing
+     * @param targetFingerprint the target table's fingerprint, or null if it's missing
+     * @return the statements, or null if the table needs to be diffed
+     */
+    public List<String> getStatements(
+            final String tableName,
+            final String sourceFingerprint,
+            final String targetFingerprint) {
+        final Entry entry = entries.get(tableName);
+        if (entry == null
+                || !Objects.equals(entry.sourceFingerprint, sourceFingerprint)
+                || !Objects.equals(entry.targetFingerprint, targetFingerprint)) {
+            return null;
+        }
+        return entry.statements;
+    }
+
+    /**
+     * Records the statements of a table's diff.
+     *
+     * @param tableName the table name
+     * @param sourceFingerprint the source table's fingerprint, or null if it's missing
+     * @param targetFingerprint the target table's fingerprint, or null if it's missing
+     * @param statements the statements
+     */
+    public void put(
+            final String tableName,
+            final String sourceFingerprint,
+            final String targetFingerprint,
+            final List<String> statements) {
+        entries.put(tableName, new Entry(sourceFingerprint, targetFingerprint,
+                Collections.unmodifiableList(new ArrayList<>(statements))));
+    }
+
+    private static class Entry {
+
+        private final String sourceFingerprint;
+        private final String targetFingerprint;
+        private final List<String> statements;
+
+        public Entry(final String sourceFingerprint, final String targetFingerprint, final List<String> statements) {
+            this.sourceFingerprint = sourceFingerprint;
+            this.targetFingerprint = targetFingerprint;
+            this.statements = statements;
+        }
+    }
+}
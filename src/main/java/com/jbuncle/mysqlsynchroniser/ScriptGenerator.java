@@ -1,12 +1,28 @@
 package com.jbuncle.mysqlsynchroniser;
 
+import com.jbuncle.mysqlsynchroniser.connection.SessionConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.data.BatchedRowStatementWriter;
+import com.jbuncle.mysqlsynchroniser.data.ChunkedTableDataDiff;
+import com.jbuncle.mysqlsynchroniser.data.TableDataDiff;
 import com.jbuncle.mysqlsynchroniser.structure.MySQL;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
 import com.jbuncle.mysqlsynchroniser.structure.diff.DatabaseDiff;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementList;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementSink;
 import com.jbuncle.mysqlsynchroniser.structure.diff.TableDiff;
+import com.jbuncle.mysqlsynchroniser.util.FutureUtils;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.sql.DataSource;
 
 /**
@@ -21,12 +37,124 @@ public class ScriptGenerator {
             final String table)
             throws SQLException {
 
-        final Table sourceTable = new MySQL(source).loadTable(table);
-        final Table targetTable = new MySQL(target).loadTable(table);
+        final Table sourceTable;
+        try (final SessionConnectionStrategy session = new SessionConnectionStrategy(source)) {
+            sourceTable = new MySQL(session).loadTable(table);
+        }
+        final Table targetTable;
+        try (final SessionConnectionStrategy session = new SessionConnectionStrategy(target)) {
+            targetTable = new MySQL(session).loadTable(table);
+        }
 
         return TableDiff.diff(sourceTable, targetTable);
     }
 
+    /**
+     * Generates a List of MySQL Statements to update the data of the given table in the target database to match the
+     * source, e.g. for reference and lookup tables. Rows are matched by primary key and only the columns both tables
+     * have are compared.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @param table the name of the table
+     * @return the multi-row INSERT, INSERT ... ON DUPLICATE KEY UPDATE and DELETE statements, each within the
+     * target's max_allowed_packet
+     * @throws SQLException
+     * @see BatchedRowStatementWriter
+     */
+    public static List<String> compareTableData(
+            final DataSource source,
+            final DataSource target,
+            final String table)
+            throws SQLException {
+
+        final StatementList statements = new StatementList();
+        compareTableData(source, target, table, statements);
+        return statements;
+    }
+
+    /**
+     * Writes the MySQL Statements to update the data of the given table in the target database to match the source
+     * to the given sink, as the rows are compared, so a large table's changes needn't be held in memory.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @param table the name of the table
+     * @param sink the sink to write the statements to
+     * @throws SQLException
+     * @see #compareTableData(javax.sql.DataSource, javax.sql.DataSource, java.lang.String)
+     */
+    public static void compareTableData(
+            final DataSource source,
+            final DataSource target,
+            final String table,
+            final StatementSink sink)
+            throws SQLException {
+
+        try (final SessionConnectionStrategy sourceSession = new SessionConnectionStrategy(source);
+                final SessionConnectionStrategy targetSession = new SessionConnectionStrategy(target)) {
+            final MySQL targetMySQL = new MySQL(targetSession);
+            final TableDataDiff diff = new TableDataDiff(
+                    new MySQL(sourceSession).loadTable(table),
+                    targetMySQL.loadTable(table));
+            diff.diff(sourceSession, targetSession, new BatchedRowStatementWriter(
+                    diff.getFormat(), sink, targetMySQL.loadMaxAllowedPacket()));
+        }
+    }
+
+    /**
+     * Generates a List of MySQL Statements to update the data of the given table in the target database to match the
+     * source, comparing checksums of primary key ranges and only reading the rows of ranges that differ. This suits
+     * large tables with few differences.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @param table the name of the table
+     * @return the multi-row INSERT, INSERT ... ON DUPLICATE KEY UPDATE and DELETE statements, each within the
+     * target's max_allowed_packet
+     * @throws SQLException
+     * @see ChunkedTableDataDiff
+     */
+    public static List<String> compareLargeTableData(
+            final DataSource source,
+            final DataSource target,
+            final String table)
+            throws SQLException {
+
+        final StatementList statements = new StatementList();
+        compareLargeTableData(source, target, table, statements);
+        return statements;
+    }
+
+    /**
+     * Writes the MySQL Statements to update the data of the given table in the target database to match the source
+     * to the given sink, as each differing primary key range is compared.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @param table the name of the table
+     * @param sink the sink to write the statements to
+     * @throws SQLException
+     * @see #compareLargeTableData(javax.sql.DataSource, javax.sql.DataSource, java.lang.String)
+     */
+    public static void compareLargeTableData(
+            final DataSource source,
+            final DataSource target,
+            final String table,
+            final StatementSink sink)
+            throws SQLException {
+
+        try (final SessionConnectionStrategy sourceSession = new SessionConnectionStrategy(source);
+                final SessionConnectionStrategy targetSession = new SessionConnectionStrategy(target)) {
+            final MySQL targetMySQL = new MySQL(targetSession);
+            final ChunkedTableDataDiff diff = new ChunkedTableDataDiff(
+                    new MySQL(sourceSession).loadTable(table),
+                    targetMySQL.loadTable(table));
+            diff.diff(sourceSession, targetSession, new BatchedRowStatementWriter(
+                    diff.getFormat(), sink, targetMySQL.loadMaxAllowedPacket()));
+        }
+    }
+
     /**
      * Generates a List of MySQL Statements to update/synchronise the given target database structure based on the
      * source database.
@@ -41,11 +169,189 @@ public class ScriptGenerator {
             final DataSource target)
             throws SQLException {
 
-        final Database sourceDatabase = new MySQL(source).loadDatabase();
-        final Database targetDatabase = new MySQL(target).loadDatabase();
+        final Database sourceDatabase = loadDatabase(source);
+        final Database targetDatabase = loadDatabase(target);
 
         final DatabaseDiff diff = new DatabaseDiff(sourceDatabase, targetDatabase);
         return diff.diff(source);
     }
 
+    /**
+     * Writes the MySQL Statements to update/synchronise the given target database structure based on the source
+     * database to the given sink, as each table is compared. For example, to write a script file:
+     *
+     * <pre>
+     * try (final AppendableStatementSink script = AppendableStatementSink.open(Paths.get("update.sql"))) {
+     *     ScriptGenerator.compareSchema(source, target, script);
+     * }
+     * </pre>
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @param sink the sink to write the statements to
+     * @throws SQLException
+     */
+    public static void compareSchema(
+            final DataSource source,
+            final DataSource target,
+            final StatementSink sink)
+            throws SQLException {
+
+        final Database sourceDatabase = loadDatabase(source);
+        final Database targetDatabase = loadDatabase(target);
+
+        final DatabaseDiff diff = new DatabaseDiff(sourceDatabase, targetDatabase);
+        diff.diff(source, null, sink);
+    }
+
+    /**
+     * Generates a List of MySQL Statements to update/synchronise the given target database structure based on the
+     * source database, only loading the tables whose structural fingerprints differ between the two.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @return a list MySQL statements created by comparing the source schema to the target schema
+     * @throws SQLException
+     * @see MySQL#loadTableFingerprints()
+     */
+    public static List<String> compareChangedTables(
+            final DataSource source,
+            final DataSource target)
+            throws SQLException {
+
+        try (final SessionConnectionStrategy sourceSession = new SessionConnectionStrategy(source);
+                final SessionConnectionStrategy targetSession = new SessionConnectionStrategy(target)) {
+            final MySQL sourceMySQL = new MySQL(sourceSession);
+            final MySQL targetMySQL = new MySQL(targetSession);
+            final Map<String, String> sourceFingerprints = sourceMySQL.loadTableFingerprints();
+            final Map<String, String> targetFingerprints = targetMySQL.loadTableFingerprints();
+
+            final Set<String> sourceTables = new HashSet<>();
+            final Set<String> targetTables = new HashSet<>();
+            for (final Map.Entry<String, String> entry : sourceFingerprints.entrySet()) {
+                final String targetFingerprint = targetFingerprints.get(entry.getKey());
+                if (!entry.getValue().equals(targetFingerprint)) {
+                    sourceTables.add(entry.getKey());
+                    if (targetFingerprint != null) {
+                        targetTables.add(entry.getKey());
+                    }
+                }
+            }
+            for (final String tableName : targetFingerprints.keySet()) {
+                if (!sourceFingerprints.containsKey(tableName)) {
+                    targetTables.add(tableName);
+                }
+            }
+
+            final DatabaseDiff diff = new DatabaseDiff(
+                    sourceMySQL.loadDatabase(sourceTables),
+                    targetMySQL.loadDatabase(targetTables));
+            return diff.diff(source);
+        }
+    }
+
+    /**
+     * Generates a List of MySQL Statements to update/synchronise the given target database structure based on an
+     * already loaded source database, e.g. one read from a {@link com.jbuncle.mysqlsynchroniser.structure.SchemaSnapshot}.
+     *
+     * The source database isn't modified, so can be reused for any number of targets.
+     *
+     * @param source the loaded source database
+     * @param sourceConnection the source datasource, used to create tables missing from the target (or null to
+     * create them from the loaded table model)
+     * @param target the target datasource to create update statements for
+     * @return a list MySQL statements created by comparing the source schema to the target schema
+     * @throws SQLException
+     */
+    public static List<String> compareSchema(
+            final Database source,
+            final DataSource sourceConnection,
+            final DataSource target)
+            throws SQLException {
+
+        final Database targetDatabase = loadDatabase(target);
+
+        final DatabaseDiff diff = new DatabaseDiff(source, targetDatabase);
+        return diff.diff(sourceConnection);
+    }
+
+    /**
+     * Generates a List of MySQL Statements to update/synchronise the given target database structure based on the
+     * source database, loading both schemas at the same time on the given executor.
+     *
+     * If either schema fails to load the other load is cancelled and the failure is thrown.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @param executor the executor used to load the source and target schemas
+     * @return a list MySQL statements created by comparing the source schema to the target schema
+     * @throws SQLException
+     */
+    public static List<String> compareSchema(
+            final DataSource source,
+            final DataSource target,
+            final ExecutorService executor)
+            throws SQLException {
+
+        final CompletionService<Database> completionService = new ExecutorCompletionService<>(executor);
+        final Future<Database> sourceFuture = completionService.submit(new LoadDatabaseTask(source));
+        final Future<Database> targetFuture = completionService.submit(new LoadDatabaseTask(target));
+        try {
+            //Wait on whichever finishes first, so a failure on one side is seen straight away
+            FutureUtils.take(completionService);
+            FutureUtils.take(completionService);
+
+            final DatabaseDiff diff = new DatabaseDiff(FutureUtils.get(sourceFuture), FutureUtils.get(targetFuture));
+            return diff.diff(source);
+        } finally {
+            //Cancel the other load if either failed (no-op for completed loads)
+            sourceFuture.cancel(true);
+            targetFuture.cancel(true);
+        }
+    }
+
+    /**
+     * Generates a List of MySQL Statements to update/synchronise the given target database structure based on the
+     * source database, loading both schemas at the same time.
+     *
+     * @param source the datasource used as the source
+     * @param target the target datasource to create update statements for
+     * @return a list MySQL statements created by comparing the source schema to the target schema
+     * @throws SQLException
+     */
+    public static List<String> compareSchemaConcurrently(
+            final DataSource source,
+            final DataSource target)
+            throws SQLException {
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            return compareSchema(source, target, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static Database loadDatabase(final DataSource dataSource) throws SQLException {
+        //Pin a single connection for the whole load rather than connecting per statement
+        try (final SessionConnectionStrategy session = new SessionConnectionStrategy(dataSource)) {
+            return new MySQL(session).loadDatabase();
+        }
+    }
+
+    private static class LoadDatabaseTask implements Callable<Database> {
+
+        private final DataSource dataSource;
+
+        public LoadDatabaseTask(final DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public Database call() throws SQLException {
+            return loadDatabase(dataSource);
+        }
+
+    }
+
 }
@@ -23,11 +23,13 @@
  */
 package com.jbuncle.mysqlsynchroniser.connection;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.sql.DataSource;
 
@@ -37,6 +39,12 @@ import javax.sql.DataSource;
  */
 public class ConnectionStrategy {
 
+    /**
+     * Fetch size that tells MySQL Connector/J to stream rows one at a time
+     * rather than reading the whole result set into memory.
+     */
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
     private final DataSource dataSource;
 
     public ConnectionStrategy(final DataSource dataSource) {
@@ -47,51 +55,186 @@ public class ConnectionStrategy {
         return dataSource;
     }
 
-    public Connection getConnection() throws SQLException {
+    /**
+     * Opens a new connection. Statements should go through {@link #acquireConnection()} instead, so a session's
+     * connections are reused.
+     *
+     * @return the connection
+     * @throws SQLException
+     */
+    protected Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
 
+    /**
+     * Gets a connection to run statements on, which must be handed back with
+     * {@link #releaseConnection(java.sql.Connection)}.
+     *
+     * @return the connection
+     * @throws SQLException
+     */
+    protected Connection acquireConnection() throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Hands back a connection obtained from {@link #acquireConnection()}.
+     *
+     * @param conn the connection
+     * @throws SQLException
+     */
+    protected void releaseConnection(final Connection conn) throws SQLException {
+        conn.close();
+    }
+
     public <T> List<T> query(final String query, final RowMapper<T> rowMapper) throws SQLException {
-        final List<T> objects = new LinkedList<>();
-        try (final Connection conn = getConnection();
-                final Statement stmt = conn.createStatement();
-                final ResultSet result = stmt.executeQuery(query)) {
-
-            while (result.next()) {
-                final T object = rowMapper.rowToObject(result);
-                objects.add(object);
+        final List<T> objects = new ArrayList<>();
+        queryEach(query, new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                objects.add(rowMapper.rowToObject(rs));
             }
-        }
+        });
         return objects;
     }
 
-    public int[] update(final String... queries) throws SQLException {
-        int[] rowCounts = new int[queries.length];
-        try (final Connection conn = getConnection();
-                final Statement stmt = conn.createStatement();) {
+    public void queryEach(final String query, final RowHandler rowHandler) throws SQLException {
+        queryEach(query, rowHandler, 0);
+    }
 
-            int index = 0;
-            for (final String query : queries) {
-                rowCounts[index] = stmt.executeUpdate(query);
+    /**
+     * Runs the given query, passing each row to the handler as it is read.
+     *
+     * @param query the query to run
+     * @param rowHandler the handler given each row
+     * @param fetchSize the fetch size hint for the driver, 0 to leave the
+     * driver default or {@link #STREAMING_FETCH_SIZE} to stream rows
+     * @throws SQLException
+     */
+    public void queryEach(final String query, final RowHandler rowHandler, final int fetchSize) throws SQLException {
+        final Connection conn = acquireConnection();
+        try (final Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            if (fetchSize != 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+            try (final ResultSet result = stmt.executeQuery(query)) {
+                while (result.next()) {
+                    rowHandler.handleRow(result);
+                }
+            }
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Runs the given query, leaving the rows to be read from the returned
+     * cursor, which must be closed.
+     *
+     * @param query the query to run
+     * @param fetchSize the fetch size hint for the driver, 0 to leave the
+     * driver default or {@link #STREAMING_FETCH_SIZE} to stream rows
+     * @return the open cursor
+     * @throws SQLException
+     */
+    public RowCursor openCursor(final String query, final int fetchSize) throws SQLException {
+        final Connection conn = acquireConnection();
+        Statement stmt = null;
+        boolean opened = false;
+        try {
+            stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize != 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+            final RowCursor cursor = new RowCursor(this, conn, stmt, stmt.executeQuery(query));
+            opened = true;
+            return cursor;
+        } finally {
+            if (!opened) {
+                try {
+                    if (stmt != null) {
+                        stmt.close();
+                    }
+                } finally {
+                    releaseConnection(conn);
+                }
             }
         }
-        return rowCounts;
+    }
+
+    public int[] update(final String... queries) throws SQLException {
+        return update(Arrays.asList(queries));
     }
 
     public int[] update(final List<String> queries) throws SQLException {
-        int[] rowCounts = new int[queries.size()];
-        try (final Connection conn = getConnection();
-                final Statement stmt = conn.createStatement();) {
+        final Connection conn = acquireConnection();
+        try (final Statement stmt = conn.createStatement();) {
+            return executeEach(stmt, queries);
+        } finally {
+            releaseConnection(conn);
+        }
+    }
 
-            int index = 0;
+    /**
+     * Executes the given statements as a single JDBC batch, rather than a
+     * round trip per statement.
+     *
+     * With MySQL Connector/J, setting rewriteBatchedStatements=true on the
+     * data source sends the batch as multi-statement packets. Falls back to
+     * executing each statement in turn if the driver doesn't support
+     * batching.
+     *
+     * @param queries the statements to execute
+     * @return the row count for each statement
+     * @throws SQLException naming the first statement that failed
+     */
+    public int[] batchUpdate(final List<String> queries) throws SQLException {
+        if (queries.isEmpty()) {
+            return new int[0];
+        }
+        final Connection conn = acquireConnection();
+        try (final Statement stmt = conn.createStatement();) {
+            if (!conn.getMetaData().supportsBatchUpdates()) {
+                return executeEach(stmt, queries);
+            }
             for (final String query : queries) {
-                try {
-                    rowCounts[index] = stmt.executeUpdate(query);
-                } catch (SQLException ex) {
-                    throw new SQLException("Failed to execute '" + query + "'", ex);
-                }
+                stmt.addBatch(query);
+            }
+            try {
+                return stmt.executeBatch();
+            } catch (BatchUpdateException ex) {
+                final String query = queries.get(getFailedIndex(ex, queries.size()));
+                throw new SQLException("Failed to execute '" + query + "'", ex);
+            }
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+
+    private static int[] executeEach(final Statement stmt, final List<String> queries) throws SQLException {
+        final int[] rowCounts = new int[queries.size()];
+        int index = 0;
+        for (final String query : queries) {
+            try {
+                rowCounts[index++] = stmt.executeUpdate(query);
+            } catch (SQLException ex) {
+                throw new SQLException("Failed to execute '" + query + "'", ex);
             }
         }
         return rowCounts;
     }
+
+    private static int getFailedIndex(final BatchUpdateException ex, final int batchSize) {
+        final int[] rowCounts = ex.getUpdateCounts();
+        if (rowCounts == null) {
+            return 0;
+        }
+        //Drivers either stop at the failure or carry on and mark it as failed
+        for (int i = 0; i < rowCounts.length; i++) {
+            if (rowCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return Math.min(rowCounts.length, batchSize - 1);
+    }
 }
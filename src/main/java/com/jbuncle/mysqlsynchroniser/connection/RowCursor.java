@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.connection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * An open query whose rows are read on demand, for reading more than one result set in step. The connection is
+ * held until the cursor is closed.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class RowCursor implements AutoCloseable {
+
+    private final ConnectionStrategy connectionStrategy;
+    private final Connection connection;
+    private final Statement statement;
+    private final ResultSet resultSet;
+
+    RowCursor(
+            final ConnectionStrategy connectionStrategy,
+            final Connection connection,
+            final Statement statement,
+            final ResultSet resultSet) {
+        this.connectionStrategy = connectionStrategy;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+    }
+
+    /**
+     * Moves to the next row.
+     *
+     * @return true if there is a row, false at the end of the results
+     * @throws SQLException
+     */
+    public boolean next() throws SQLException {
+        return this.resultSet.next();
+    }
+
+    /**
+     * Gets the result set, positioned at the current row.
+     *
+     * @return the result set
+     */
+    public ResultSet getResultSet() {
+        return this.resultSet;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            this.statement.close();
+        } finally {
+            this.connectionStrategy.releaseConnection(this.connection);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * A ConnectionStrategy that keeps its connections open between statements, so a whole schema load only pays the
+ * connection handshake once per pinned connection.
+ *
+ * Connections are opened as needed, up to the given maximum, and are only closed when the session is closed. When
+ * all connections are in use callers wait for one to be released, or fail if the session is closed meanwhile.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SessionConnectionStrategy extends ConnectionStrategy implements AutoCloseable {
+
+    private final int maxConnections;
+    private final Deque<Connection> idle;
+    private final List<Connection> opened;
+    private boolean closed;
+
+    public SessionConnectionStrategy(final DataSource dataSource) {
+        this(dataSource, 1);
+    }
+
+    public SessionConnectionStrategy(final DataSource dataSource, final int maxConnections) {
+        super(dataSource);
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("At least one connection is required");
+        }
+        this.maxConnections = maxConnections;
+        this.idle = new ArrayDeque<>(maxConnections);
+        this.opened = new ArrayList<>(maxConnections);
+    }
+
+    @Override
+    protected synchronized Connection acquireConnection() throws SQLException {
+        while (true) {
+            if (this.closed) {
+                throw new SQLException("Session is closed");
+            }
+            final Connection conn = this.idle.poll();
+            if (conn != null) {
+                return conn;
+            }
+            if (this.opened.size() < this.maxConnections) {
+                final Connection newConn = getConnection();
+                this.opened.add(newConn);
+                return newConn;
+            }
+            try {
+                //All connections pinned and in use, wait for one to come back or the session to close
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted whilst waiting for a connection", ex);
+            }
+        }
+    }
+
+    @Override
+    protected synchronized void releaseConnection(final Connection conn) throws SQLException {
+        if (this.closed || conn.isClosed()) {
+            //Don't hand out a dead connection, let a new one be opened instead
+            this.opened.remove(conn);
+            conn.close();
+        } else {
+            this.idle.add(conn);
+        }
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void close() throws SQLException {
+        this.closed = true;
+        this.idle.clear();
+        //Wake any callers waiting for a connection, so they fail rather than wait forever
+        notifyAll();
+        SQLException failure = null;
+        for (final Connection conn : this.opened) {
+            try {
+                conn.close();
+            } catch (SQLException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.setNextException(ex);
+                }
+            }
+        }
+        this.opened.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementList;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementSink;
+
+/**
+ * Writes row changes as multi-row statements: inserts as <code>INSERT ... VALUES (...), (...)</code>, updates as
+ * <code>INSERT ... ON DUPLICATE KEY UPDATE</code> and deletes as <code>DELETE ... WHERE key IN (...)</code>.
+ *
+ * An upsert updates whichever row it clashes with on any unique index, so updates are only batched when the
+ * primary key is the target's only unique index. Otherwise each update is an UPDATE by primary key, as written by
+ * {@link RowStatementWriter}.
+ *
+ * Each statement is kept under the given size, e.g. the target's <code>max_allowed_packet</code>. When any
+ * statement is full all pending statements are written, deletes first, so a row deleted to free a unique value is
+ * gone before a row taking that value is written.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class BatchedRowStatementWriter implements RowChangeHandler {
+
+    /**
+     * Space left in each packet for the protocol header.
+     */
+    private static final int PACKET_OVERHEAD = 1024;
+
+    private final RowFormat format;
+    private final StatementSink sink;
+    private final long maxStatementBytes;
+    private final Batch inserts;
+    private final Batch upserts;
+    private final Batch deletes;
+    private final StatementList updates;
+    private final RowStatementWriter updateWriter;
+    private long updateBytes;
+
+    /**
+     * Creates a writer whose statements fit in the given packet size.
+     *
+     * @param format the format of the rows
+     * @param sink the sink to write the statements to
+     * @param maxAllowedPacket the target's max_allowed_packet, in bytes
+     * @see com.jbuncle.mysqlsynchroniser.structure.MySQL#loadMaxAllowedPacket()
+     */
+    public BatchedRowStatementWriter(final RowFormat format, final StatementSink sink, final long maxAllowedPacket) {
+        this.format = format;
+        this.sink = sink;
+        this.maxStatementBytes = Math.max(maxAllowedPacket - PACKET_OVERHEAD, PACKET_OVERHEAD);
+
+        final StringBuilder insert = new StringBuilder("INSERT INTO `").append(format.getTableName()).append("` (");
+        format.appendColumnList(insert);
+        insert.append(") VALUES ");
+        this.inserts = new Batch(insert.toString(), ";");
+        this.upserts = new Batch(insert.toString(), getUpsertSuffix(format));
+        this.updates = new StatementList();
+        this.updateWriter = format.isOnlyUniqueKey() ? null : new RowStatementWriter(format, updates);
+        this.updateBytes = 0;
+
+        final int[] keyColumns = format.getKeyColumns();
+        final StringBuilder delete = new StringBuilder("DELETE FROM `").append(format.getTableName())
+                .append("` WHERE ");
+        if (keyColumns.length == 1) {
+            delete.append('`').append(format.getColumnNames().get(keyColumns[0])).append('`');
+        } else {
+            delete.append('(');
+            for (int i = 0; i < keyColumns.length; i++) {
+                if (i > 0) {
+                    delete.append(", ");
+                }
+                delete.append('`').append(format.getColumnNames().get(keyColumns[i])).append('`');
+            }
+            delete.append(')');
+        }
+        this.deletes = new Batch(delete.append(" IN (").toString(), ");");
+    }
+
+    private static String getUpsertSuffix(final RowFormat format) {
+        final StringBuilder sb = new StringBuilder(" ON DUPLICATE KEY UPDATE ");
+        boolean first = true;
+        for (int i = 0; i < format.getColumnCount(); i++) {
+            if (!format.isKeyColumn(i)) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                final String columnName = format.getColumnNames().get(i);
+                sb.append('`').append(columnName).append("` = VALUES(`").append(columnName).append("`)");
+                first = false;
+            }
+        }
+        if (first) {
+            //Only key columns, so there's nothing to update
+            final String columnName = format.getColumnNames().get(format.getKeyColumns()[0]);
+            sb.append('`').append(columnName).append("` = `").append(columnName).append('`');
+        }
+        return sb.append(';').toString();
+    }
+
+    @Override
+    public void insert(final Object[] row) {
+        add(inserts, getRowValues(row));
+    }
+
+    @Override
+    public void update(final Object[] from, final Object[] to) {
+        if (updateWriter == null) {
+            add(upserts, getRowValues(to));
+            return;
+        }
+        final int count = updates.size();
+        updateWriter.update(from, to);
+        if (updates.size() > count) {
+            //Held back so they're written after the pending deletes, like the upserts
+            updateBytes += getUtf8Length(updates.get(count));
+            if (updateBytes > maxStatementBytes) {
+                flush();
+            }
+        }
+    }
+
+    @Override
+    public void delete(final Object[] row) {
+        final int[] keyColumns = format.getKeyColumns();
+        final StringBuilder sb = new StringBuilder();
+        if (keyColumns.length == 1) {
+            format.appendLiteral(sb, keyColumns[0], row[keyColumns[0]]);
+        } else {
+            sb.append('(');
+            for (int i = 0; i < keyColumns.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                format.appendLiteral(sb, keyColumns[i], row[keyColumns[i]]);
+            }
+            sb.append(')');
+        }
+        add(deletes, sb.toString());
+    }
+
+    @Override
+    public void flush() {
+        deletes.write();
+        updates.appendTo(sink);
+        updates.clear();
+        updateBytes = 0;
+        upserts.write();
+        inserts.write();
+    }
+
+    private String getRowValues(final Object[] row) {
+        final StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            format.appendLiteral(sb, i, row[i]);
+        }
+        return sb.append(')').toString();
+    }
+
+    private void add(final Batch batch, final String rowValues) {
+        final long rowBytes = getUtf8Length(rowValues);
+        if (!batch.fits(rowBytes)) {
+            flush();
+        }
+        batch.add(rowValues, rowBytes);
+    }
+
+    /**
+     * Gets the number of bytes the string takes in UTF-8.
+     */
+    private static long getUtf8Length(final String str) {
+        long length = 0;
+        for (int i = 0; i < str.length(); i++) {
+            final char c = str.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                //Half of a 4 byte pair
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * A multi-row statement being built.
+     */
+    private class Batch {
+
+        private final String prefix;
+        private final String suffix;
+        private final long fixedBytes;
+        private final StringBuilder values;
+        private long bytes;
+
+        public Batch(final String prefix, final String suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.fixedBytes = getUtf8Length(prefix) + getUtf8Length(suffix);
+            this.values = new StringBuilder();
+            this.bytes = 0;
+        }
+
+        public boolean fits(final long rowBytes) {
+            //An empty batch always takes a row, even one that's too big on its own
+            return values.length() == 0 || fixedBytes + bytes + 2 + rowBytes <= maxStatementBytes;
+        }
+
+        public void add(final String rowValues, final long rowBytes) {
+            if (values.length() > 0) {
+                values.append(", ");
+                bytes += 2;
+            }
+            values.append(rowValues);
+            bytes += rowBytes;
+        }
+
+        public void write() {
+            if (values.length() == 0) {
+                return;
+            }
+            sink.append(new StringBuilder(prefix.length() + values.length() + suffix.length())
+                    .append(prefix).append(values).append(suffix).toString());
+            values.setLength(0);
+            bytes = 0;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.connection.RowMapper;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Compares the rows of a large, mostly identical table by splitting it into primary key ranges and comparing
+ * server side checksums of each range, only reading the rows of ranges that differ.
+ *
+ * A range whose checksums differ is split again until it holds few enough rows to compare row by row, so the rows
+ * read scale with the size of the difference rather than the size of the table. Tables without a single integer
+ * primary key are compared row by row.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ * @see TableDataDiff
+ */
+public class ChunkedTableDataDiff {
+
+    private final TableDataDiff rowDiff;
+    private final RowFormat format;
+    private final String keyColumn;
+    private int leafRows;
+    private int fanOut;
+
+    /**
+     * Creates a diff of the columns the source and target tables have in common.
+     *
+     * @param source the table to update to
+     * @param target the table to update
+     * @throws IllegalArgumentException if the tables don't have the same primary key
+     */
+    public ChunkedTableDataDiff(final Table source, final Table target) {
+        this.rowDiff = new TableDataDiff(source, target);
+        this.format = this.rowDiff.getFormat();
+        this.keyColumn = this.format.getIntegerKeyColumn();
+        this.leafRows = 1000;
+        this.fanOut = 16;
+    }
+
+    public RowFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the number of rows below which a differing range is compared row by row rather than split again.
+     *
+     * @param leafRows the maximum rows compared row by row
+     */
+    public void setLeafRows(final int leafRows) {
+        this.leafRows = leafRows;
+    }
+
+    /**
+     * Sets the number of ranges a differing range is split into.
+     *
+     * @param fanOut the number of ranges, at least 2
+     */
+    public void setFanOut(final int fanOut) {
+        if (fanOut < 2) {
+            throw new IllegalArgumentException("Fan out must be at least 2");
+        }
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Compares the table's rows, giving the changes to the handler in key order.
+     *
+     * @param source the database to update to
+     * @param target the database to update
+     * @param handler the handler given the changes
+     * @throws SQLException
+     */
+    public void diff(
+            final ConnectionStrategy source,
+            final ConnectionStrategy target,
+            final RowChangeHandler handler)
+            throws SQLException {
+        if (keyColumn == null) {
+            rowDiff.diff(source, target, handler);
+            return;
+        }
+        final BigInteger[] sourceBounds = loadBounds(source);
+        final BigInteger[] targetBounds = loadBounds(target);
+        if (sourceBounds != null || targetBounds != null) {
+            final BigInteger min;
+            final BigInteger max;
+            if (sourceBounds == null) {
+                min = targetBounds[0];
+                max = targetBounds[1];
+            } else if (targetBounds == null) {
+                min = sourceBounds[0];
+                max = sourceBounds[1];
+            } else {
+                min = sourceBounds[0].min(targetBounds[0]);
+                max = sourceBounds[1].max(targetBounds[1]);
+            }
+            diffRange(source, target, min, max, handler);
+        }
+        handler.flush();
+    }
+
+    /**
+     * Gets the lowest and highest keys, or null if the table is empty.
+     */
+    private BigInteger[] loadBounds(final ConnectionStrategy connection) throws SQLException {
+        return connection.query("SELECT MIN(`" + keyColumn + "`), MAX(`" + keyColumn + "`) "
+                + "FROM `" + format.getTableName() + "`;", new RowMapper<BigInteger[]>() {
+            @Override
+            public BigInteger[] rowToObject(ResultSet rs) throws SQLException {
+                final String min = rs.getString(1);
+                if (min == null) {
+                    return null;
+                }
+                return new BigInteger[]{new BigInteger(min), new BigInteger(rs.getString(2))};
+            }
+        }).get(0);
+    }
+
+    private long[] loadChecksum(final ConnectionStrategy connection, final String where) throws SQLException {
+        return connection.query("SELECT COUNT(*), BIT_XOR(" + format.getChecksumExpression() + ") "
+                + "FROM `" + format.getTableName() + "` WHERE " + where + ";", new RowMapper<long[]>() {
+            @Override
+            public long[] rowToObject(ResultSet rs) throws SQLException {
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            }
+        }).get(0);
+    }
+
+    private void diffRange(
+            final ConnectionStrategy source,
+            final ConnectionStrategy target,
+            final BigInteger min,
+            final BigInteger max,
+            final RowChangeHandler handler)
+            throws SQLException {
+        final String where = "`" + keyColumn + "` BETWEEN " + min + " AND " + max;
+        final long[] sourceChecksum = loadChecksum(source, where);
+        final long[] targetChecksum = loadChecksum(target, where);
+        if (sourceChecksum[0] == targetChecksum[0] && sourceChecksum[1] == targetChecksum[1]) {
+            return;
+        }
+        final BigInteger span = max.subtract(min).add(BigInteger.ONE);
+        if (Math.max(sourceChecksum[0], targetChecksum[0]) <= leafRows
+                || Math.min(sourceChecksum[0], targetChecksum[0]) == 0
+                || span.compareTo(BigInteger.valueOf(fanOut)) <= 0) {
+            //Small, or all inserts or deletes, so read the rows
+            rowDiff.diff(source, target, where, handler);
+            return;
+        }
+        //Round up so there are at most fanOut ranges
+        final BigInteger step = span.add(BigInteger.valueOf(fanOut - 1)).divide(BigInteger.valueOf(fanOut));
+        for (BigInteger start = min; start.compareTo(max) <= 0; start = start.add(step)) {
+            diffRange(source, target, start, start.add(step).subtract(BigInteger.ONE).min(max), handler);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+/**
+ * Receives the row changes needed to update a target table's data to the source's, in primary key order.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ * @see RowFormat
+ */
+public interface RowChangeHandler {
+
+    /**
+     * A row is missing from the target.
+     *
+     * @param row the source row
+     */
+    void insert(Object[] row);
+
+    /**
+     * A row differs between the source and target.
+     *
+     * @param from the target row
+     * @param to the source row
+     */
+    void update(Object[] from, Object[] to);
+
+    /**
+     * A row is missing from the source.
+     *
+     * @param row the target row
+     */
+    void delete(Object[] row);
+
+    /**
+     * All of the table's changes have been given.
+     */
+    void flush();
+}
@@ -0,0 +1,460 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The columns of a table compared by a data diff, how each is read, compared and written, and the primary key the
+ * rows are matched and ordered on.
+ *
+ * Rows are read as arrays of values in column order: a String for numeric and text columns, a byte[] for binary
+ * and text key columns and a BigDecimal for numeric key columns, or null.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class RowFormat {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final Set<String> INTEGER_TYPES = new HashSet<>(Arrays.asList(
+            "tinyint", "smallint", "mediumint", "int", "integer", "bigint"));
+
+    //Read and written in MySQL's internal binary format, as mysqldump --hex-blob does
+    private static final Set<String> GEOMETRY_TYPES = new HashSet<>(Arrays.asList(
+            "geometry", "point", "linestring", "polygon", "multipoint", "multilinestring", "multipolygon",
+            "geometrycollection", "geomcollection"));
+
+    private enum ColumnKind {
+        NUMERIC, BINARY, TEXT,
+        //Read as the bytes of the column's character set, so keys compare in the order ORDER BY BINARY gives
+        TEXT_KEY
+    }
+
+    private final String tableName;
+    private final List<String> columnNames;
+    private final ColumnKind[] kinds;
+    private final String[] characterSets;
+    private final int[] keyColumns;
+    private final boolean[] keyColumn;
+    private final boolean integerKey;
+    private final boolean onlyUniqueKey;
+
+    /**
+     * Creates the format for the columns the source and target tables have in common.
+     *
+     * @param source the table to update to
+     * @param target the table to update
+     * @throws IllegalArgumentException if the tables don't have the same primary key
+     */
+    public RowFormat(final Table source, final Table target) {
+        final Index primaryKey = source.getIndex("PRIMARY");
+        if (primaryKey == null) {
+            throw new IllegalArgumentException("Table `" + source.getTableName() + "` has no primary key");
+        }
+        final Index targetPrimaryKey = target.getIndex("PRIMARY");
+        if (targetPrimaryKey == null || !primaryKey.getColumnNames().equals(targetPrimaryKey.getColumnNames())) {
+            throw new IllegalArgumentException("Table `" + source.getTableName()
+                    + "` has a different primary key in the target");
+        }
+        this.tableName = source.getTableName();
+        final List<String> names = new ArrayList<>(source.getColumns().size());
+        final List<ColumnKind> columnKinds = new ArrayList<>(source.getColumns().size());
+        final List<String> columnCharacterSets = new ArrayList<>(source.getColumns().size());
+        for (final Column column : source.getColumns()) {
+            if (target.getColumn(column.getColumnName()) != null) {
+                names.add(column.getColumnName());
+                columnKinds.add(getKind(column));
+                columnCharacterSets.add(getCharacterSet(column.getCollation()));
+            }
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+        this.kinds = columnKinds.toArray(new ColumnKind[columnKinds.size()]);
+        this.characterSets = columnCharacterSets.toArray(new String[columnCharacterSets.size()]);
+        this.keyColumns = new int[primaryKey.getColumnNames().size()];
+        this.keyColumn = new boolean[names.size()];
+        int i = 0;
+        for (final String keyColumnName : primaryKey.getColumnNames()) {
+            final int column = names.indexOf(keyColumnName);
+            this.keyColumns[i++] = column;
+            this.keyColumn[column] = true;
+            if (this.kinds[column] == ColumnKind.TEXT) {
+                this.kinds[column] = ColumnKind.TEXT_KEY;
+            }
+        }
+        this.integerKey = this.keyColumns.length == 1
+                && INTEGER_TYPES.contains(
+                        source.getColumn(primaryKey.getColumnNames().get(0)).getColumnType().getBaseType());
+        boolean onlyUnique = true;
+        for (final Index index : target.getIndexes()) {
+            if (!index.isPrimaryKey() && !index.isNonUnique()) {
+                onlyUnique = false;
+            }
+        }
+        this.onlyUniqueKey = onlyUnique;
+    }
+
+    private static ColumnKind getKind(final Column column) {
+        final String baseType = column.getColumnType().getBaseType();
+        if (INTEGER_TYPES.contains(baseType) || baseType.equals("decimal") || baseType.equals("float")
+                || baseType.equals("double")) {
+            return ColumnKind.NUMERIC;
+        } else if (baseType.endsWith("binary") || baseType.endsWith("blob") || baseType.equals("bit")
+                || GEOMETRY_TYPES.contains(baseType)) {
+            return ColumnKind.BINARY;
+        }
+        return ColumnKind.TEXT;
+    }
+
+    private static String getCharacterSet(final String collation) {
+        if (collation == null) {
+            return null;
+        }
+        final int separator = collation.indexOf('_');
+        return separator < 0 ? collation : collation.substring(0, separator);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public int getColumnCount() {
+        return kinds.length;
+    }
+
+    /**
+     * Gets the positions of the primary key columns, in key order.
+     *
+     * @return the key column positions
+     */
+    public int[] getKeyColumns() {
+        return keyColumns.clone();
+    }
+
+    public boolean isKeyColumn(final int column) {
+        return keyColumn[column];
+    }
+
+    /**
+     * Gets the query reading the compared columns in key order. Text keys are ordered by the bytes of their
+     * character set rather than the column's collation, and are read as those bytes so that
+     * {@link #compareKeys(java.lang.Object[], java.lang.Object[])} compares them in the same order whatever the
+     * character set.
+     *
+     * As the order isn't the collation's, the server can't read the rows in primary key index order for a text key,
+     * so it sorts the whole table (a filesort) before returning the first row.
+     *
+     * @return the query
+     */
+    public String getSelectQuery() {
+        return getSelectQuery(null);
+    }
+
+    /**
+     * Gets the query reading the compared columns in key order, for the rows matching the given condition.
+     *
+     * @param where the condition, or null for all rows
+     * @return the query
+     */
+    public String getSelectQuery(final String where) {
+        final StringBuilder sb = new StringBuilder("SELECT ");
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (kinds[i] == ColumnKind.TEXT_KEY) {
+                //Not converted to the connection's character set
+                sb.append("BINARY ");
+            }
+            sb.append('`').append(columnNames.get(i)).append('`');
+        }
+        sb.append(" FROM `").append(tableName).append('`');
+        if (where != null) {
+            sb.append(" WHERE ").append(where);
+        }
+        sb.append(" ORDER BY ");
+        for (int i = 0; i < keyColumns.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (kinds[keyColumns[i]] == ColumnKind.TEXT_KEY) {
+                sb.append("BINARY ");
+            }
+            sb.append('`').append(columnNames.get(keyColumns[i])).append('`');
+        }
+        return sb.append(';').toString();
+    }
+
+    /**
+     * Gets the name of the primary key column, if the key is a single integer column that rows can be split into
+     * ranges on.
+     *
+     * @return the key column name, or null if the key isn't a single integer column
+     */
+    public String getIntegerKeyColumn() {
+        return integerKey ? columnNames.get(keyColumns[0]) : null;
+    }
+
+    /**
+     * Gets whether the primary key is the target table's only unique index, so a row can only clash with the row
+     * that has its key.
+     *
+     * @return true if the target has no other unique indexes
+     */
+    public boolean isOnlyUniqueKey() {
+        return onlyUniqueKey;
+    }
+
+    /**
+     * Gets the expression for a row's checksum. Each value is preceded by its length, so values containing the
+     * separator can't run into the next column, and followed by whether each column is null (as CONCAT_WS skips
+     * nulls), e.g. <code>CRC32(CONCAT_WS('#', LENGTH(`id`), `id`, LENGTH(`name`), `name`,
+     * CONCAT(ISNULL(`id`), ISNULL(`name`))))</code>.
+     *
+     * @return the checksum expression
+     */
+    public String getChecksumExpression() {
+        final StringBuilder sb = new StringBuilder("CRC32(CONCAT_WS('#', ");
+        for (final String columnName : columnNames) {
+            sb.append("LENGTH(`").append(columnName).append("`), `").append(columnName).append("`, ");
+        }
+        sb.append("CONCAT(");
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("ISNULL(`").append(columnNames.get(i)).append("`)");
+        }
+        return sb.append(")))").toString();
+    }
+
+    /**
+     * Appends the comma separated, quoted column names.
+     *
+     * @param sb the builder to append to
+     */
+    public void appendColumnList(final StringBuilder sb) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('`').append(columnNames.get(i)).append('`');
+        }
+    }
+
+    /**
+     * Reads the current row.
+     *
+     * @param rs the result set of {@link #getSelectQuery()}
+     * @return the row values
+     * @throws SQLException
+     */
+    public Object[] readRow(final ResultSet rs) throws SQLException {
+        final Object[] row = new Object[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == ColumnKind.BINARY || kinds[i] == ColumnKind.TEXT_KEY) {
+                row[i] = rs.getBytes(i + 1);
+            } else if (kinds[i] == ColumnKind.NUMERIC && keyColumn[i]) {
+                row[i] = rs.getBigDecimal(i + 1);
+            } else {
+                row[i] = rs.getString(i + 1);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Compares the primary keys of two rows, in the order the select query returns them.
+     *
+     * @param a a row
+     * @param b another row
+     * @return negative, zero or positive as the first row's key is before, the same as or after the second's
+     */
+    @SuppressWarnings("unchecked")
+    public int compareKeys(final Object[] a, final Object[] b) {
+        for (final int column : keyColumns) {
+            final int cmp;
+            switch (kinds[column]) {
+                case NUMERIC:
+                    cmp = ((Comparable<Object>) a[column]).compareTo(b[column]);
+                    break;
+                default:
+                    cmp = compareBytes((byte[]) a[column], (byte[]) b[column]);
+                    break;
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compares unsigned bytes, as MySQL compares binary strings.
+     */
+    private static int compareBytes(final byte[] a, final byte[] b) {
+        final int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            final int cmp = (a[i] & 0xff) - (b[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Gets whether a column has the same value in both rows.
+     *
+     * @param a a row
+     * @param b another row
+     * @param column the column position
+     * @return true if the values are the same
+     */
+    @SuppressWarnings("unchecked")
+    public boolean isSame(final Object[] a, final Object[] b, final int column) {
+        final Object valueA = a[column];
+        final Object valueB = b[column];
+        if (valueA == null || valueB == null) {
+            return valueA == valueB;
+        } else if (kinds[column] == ColumnKind.BINARY || kinds[column] == ColumnKind.TEXT_KEY) {
+            return Arrays.equals((byte[]) valueA, (byte[]) valueB);
+        } else if (kinds[column] == ColumnKind.NUMERIC && keyColumn[column]) {
+            return ((Comparable<Object>) valueA).compareTo(valueB) == 0;
+        }
+        return valueA.equals(valueB);
+    }
+
+    /**
+     * Gets whether all the columns have the same values in both rows.
+     *
+     * @param a a row
+     * @param b another row
+     * @return true if the rows are the same
+     */
+    public boolean isSameRow(final Object[] a, final Object[] b) {
+        for (int i = 0; i < kinds.length; i++) {
+            if (!isSame(a, b, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends a column value as an SQL literal.
+     *
+     * @param sb the builder to append to
+     * @param column the column position
+     * @param value the value
+     */
+    public void appendLiteral(final StringBuilder sb, final int column, final Object value) {
+        if (value == null) {
+            sb.append("NULL");
+        } else if (kinds[column] == ColumnKind.BINARY) {
+            appendHex(sb, (byte[]) value);
+        } else if (kinds[column] == ColumnKind.TEXT_KEY) {
+            //Introduced with the column's character set, so the bytes aren't compared as a binary string
+            if (characterSets[column] != null) {
+                sb.append('_').append(characterSets[column]).append(' ');
+            }
+            appendHex(sb, (byte[]) value);
+        } else if (kinds[column] == ColumnKind.NUMERIC) {
+            sb.append(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+        } else {
+            appendQuoted(sb, (String) value);
+        }
+    }
+
+    private static void appendHex(final StringBuilder sb, final byte[] bytes) {
+        sb.append("X'");
+        for (final byte b : bytes) {
+            sb.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        sb.append('\'');
+    }
+
+    private static void appendQuoted(final StringBuilder sb, final String str) {
+        sb.append('\'');
+        for (int i = 0; i < str.length(); i++) {
+            final char c = str.charAt(i);
+            switch (c) {
+                case '\0':
+                    sb.append("\\0");
+                    break;
+                case '\'':
+                    sb.append("\\'");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\u001a':
+                    sb.append("\\Z");
+                    break;
+                default:
+                    sb.append(c);
+                    break;
+            }
+        }
+        sb.append('\'');
+    }
+
+    /**
+     * Appends the condition matching a row's primary key, e.g. <code>`id` = 1</code>.
+     *
+     * @param sb the builder to append to
+     * @param row the row
+     */
+    public void appendKeyCondition(final StringBuilder sb, final Object[] row) {
+        for (int i = 0; i < keyColumns.length; i++) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            final int column = keyColumns[i];
+            sb.append('`').append(columnNames.get(column)).append("` = ");
+            appendLiteral(sb, column, row[column]);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementSink;
+
+/**
+ * Writes a statement per row change: an INSERT of the whole row, an UPDATE of only the changed columns, or a
+ * DELETE by primary key.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class RowStatementWriter implements RowChangeHandler {
+
+    private final RowFormat format;
+    private final StatementSink sink;
+    private final String insertPrefix;
+
+    public RowStatementWriter(final RowFormat format, final StatementSink sink) {
+        this.format = format;
+        this.sink = sink;
+        final StringBuilder sb = new StringBuilder("INSERT INTO `").append(format.getTableName()).append("` (");
+        format.appendColumnList(sb);
+        this.insertPrefix = sb.append(") VALUES (").toString();
+    }
+
+    @Override
+    public void insert(final Object[] row) {
+        final StringBuilder sb = new StringBuilder(insertPrefix);
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            format.appendLiteral(sb, i, row[i]);
+        }
+        sink.append(sb.append(");").toString());
+    }
+
+    @Override
+    public void update(final Object[] from, final Object[] to) {
+        final StringBuilder sb = new StringBuilder("UPDATE `").append(format.getTableName()).append("` SET ");
+        boolean first = true;
+        for (int i = 0; i < to.length; i++) {
+            if (!format.isKeyColumn(i) && !format.isSame(from, to, i)) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append('`').append(format.getColumnNames().get(i)).append("` = ");
+                format.appendLiteral(sb, i, to[i]);
+                first = false;
+            }
+        }
+        if (first) {
+            //Only the key's representation differs
+            return;
+        }
+        sb.append(" WHERE ");
+        format.appendKeyCondition(sb, to);
+        sink.append(sb.append(';').toString());
+    }
+
+    @Override
+    public void delete(final Object[] row) {
+        final StringBuilder sb = new StringBuilder("DELETE FROM `").append(format.getTableName()).append("` WHERE ");
+        format.appendKeyCondition(sb, row);
+        sink.append(sb.append(';').toString());
+    }
+
+    @Override
+    public void flush() {
+        //Statements are written as they're made
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.connection.RowCursor;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.sql.SQLException;
+
+/**
+ * Compares the rows of a table in two databases by primary key.
+ *
+ * Both tables are read in key order at the same time and merged, so neither is held in memory.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class TableDataDiff {
+
+    private final RowFormat format;
+
+    /**
+     * Creates a diff of the columns the source and target tables have in common.
+     *
+     * @param source the table to update to
+     * @param target the table to update
+     * @throws IllegalArgumentException if the tables don't have the same primary key
+     */
+    public TableDataDiff(final Table source, final Table target) {
+        this(new RowFormat(source, target));
+    }
+
+    public TableDataDiff(final RowFormat format) {
+        this.format = format;
+    }
+
+    public RowFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Compares all of the table's rows, giving the changes to the handler in key order.
+     *
+     * Each side holds a connection until the diff is finished, so a session shouldn't be shared between them.
+     *
+     * @param source the database to update to
+     * @param target the database to update
+     * @param handler the handler given the changes
+     * @throws SQLException
+     */
+    public void diff(
+            final ConnectionStrategy source,
+            final ConnectionStrategy target,
+            final RowChangeHandler handler)
+            throws SQLException {
+        merge(source, target, format.getSelectQuery(), handler);
+        handler.flush();
+    }
+
+    /**
+     * Compares the rows matching the given condition, without flushing the handler.
+     *
+     * @param source the database to update to
+     * @param target the database to update
+     * @param where the condition
+     * @param handler the handler given the changes
+     * @throws SQLException
+     */
+    void diff(
+            final ConnectionStrategy source,
+            final ConnectionStrategy target,
+            final String where,
+            final RowChangeHandler handler)
+            throws SQLException {
+        merge(source, target, format.getSelectQuery(where), handler);
+    }
+
+    private void merge(
+            final ConnectionStrategy source,
+            final ConnectionStrategy target,
+            final String query,
+            final RowChangeHandler handler)
+            throws SQLException {
+        try (final RowCursor sourceCursor = source.openCursor(query, ConnectionStrategy.STREAMING_FETCH_SIZE);
+                final RowCursor targetCursor = target.openCursor(query, ConnectionStrategy.STREAMING_FETCH_SIZE)) {
+            merge(getRows(sourceCursor), getRows(targetCursor), handler);
+        }
+    }
+
+    /**
+     * Merges two sources of rows in key order, giving the changes to the handler.
+     *
+     * @param source the rows to update to
+     * @param target the rows to update
+     * @param handler the handler given the changes
+     * @throws SQLException if either source fails or isn't in key order
+     */
+    void merge(final RowSource source, final RowSource target, final RowChangeHandler handler)
+            throws SQLException {
+        Object[] sourceRow = next(source, null);
+        Object[] targetRow = next(target, null);
+        while (sourceRow != null || targetRow != null) {
+            final int cmp;
+            if (sourceRow == null) {
+                cmp = 1;
+            } else if (targetRow == null) {
+                cmp = -1;
+            } else {
+                cmp = format.compareKeys(sourceRow, targetRow);
+            }
+            if (cmp < 0) {
+                handler.insert(sourceRow);
+                sourceRow = next(source, sourceRow);
+            } else if (cmp > 0) {
+                handler.delete(targetRow);
+                targetRow = next(target, targetRow);
+            } else {
+                if (!format.isSameRow(targetRow, sourceRow)) {
+                    handler.update(targetRow, sourceRow);
+                }
+                sourceRow = next(source, sourceRow);
+                targetRow = next(target, targetRow);
+            }
+        }
+    }
+
+    private RowSource getRows(final RowCursor cursor) {
+        return new RowSource() {
+
+            @Override
+            public Object[] next() throws SQLException {
+                return cursor.next() ? format.readRow(cursor.getResultSet()) : null;
+            }
+        };
+    }
+
+    /**
+     * Reads the next row, checking the rows are in the order the merge expects.
+     */
+    private Object[] next(final RowSource rows, final Object[] previous) throws SQLException {
+        final Object[] row = rows.next();
+        if (row != null && previous != null && format.compareKeys(previous, row) >= 0) {
+            throw new SQLException("Rows of `" + format.getTableName() + "` aren't in primary key order");
+        }
+        return row;
+    }
+
+    /**
+     * Rows read in key order, in the layout of the diff's {@link RowFormat}.
+     */
+    interface RowSource {
+
+        /**
+         * Reads the next row.
+         *
+         * @return the row, or null if there are no more rows
+         * @throws SQLException
+         */
+        Object[] next() throws SQLException;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.connection.RowHandler;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKey;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.IndexesBuilder;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.TableOptions;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Loads every table of the current schema from INFORMATION_SCHEMA using a
+ * fixed number of queries, rather than two SHOW statements per table.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class InformationSchemaLoader implements TableLoader {
+
+    //Formatted with the GENERATION_EXPRESSION column where the server has it
+    private static final String COLUMNS_QUERY = "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.COLUMN_TYPE, c.IS_NULLABLE, "
+            + "c.COLUMN_KEY, c.COLUMN_DEFAULT, c.EXTRA, c.COLLATION_NAME, c.COLUMN_COMMENT%s "
+            + "FROM INFORMATION_SCHEMA.COLUMNS c "
+            + "INNER JOIN INFORMATION_SCHEMA.TABLES t "
+            + "ON t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME "
+            + "WHERE c.TABLE_SCHEMA = DATABASE() AND t.TABLE_TYPE = 'BASE TABLE' "
+            + "ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION;";
+
+    private static final String INDEXES_QUERY = "SELECT TABLE_NAME, NON_UNIQUE, INDEX_NAME, COLUMN_NAME, SUB_PART, INDEX_TYPE "
+            + "FROM INFORMATION_SCHEMA.STATISTICS "
+            + "WHERE TABLE_SCHEMA = DATABASE() "
+            + "ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX;";
+
+    private static final String TABLES_QUERY = "SELECT TABLE_NAME, ENGINE, TABLE_COLLATION, ROW_FORMAT, "
+            + "AUTO_INCREMENT, TABLE_COMMENT "
+            + "FROM INFORMATION_SCHEMA.TABLES "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE';";
+
+    private final ConnectionStrategy connectionStrategy;
+    private final SymbolTable symbols;
+
+    public InformationSchemaLoader(final DataSource dataSource) {
+        this(new ConnectionStrategy(dataSource));
+    }
+
+    public InformationSchemaLoader(final ConnectionStrategy connectionStrategy) {
+        this.connectionStrategy = connectionStrategy;
+        this.symbols = SymbolTable.getShared();
+    }
+
+    @Override
+    public Map<String, Table> loadTables() throws SQLException {
+        final MySQL mySQL = new MySQL(this.connectionStrategy);
+        final ServerVersion version = mySQL.loadServerVersion();
+        final Map<String, List<Column>> columns = loadColumns(
+                version.isMariaDB() && version.isAtLeast(10, 2, 7), version.hasGenerationExpressions());
+        final Map<String, IndexesBuilder> indexes = loadIndexes();
+        final Map<String, TableOptions> options = loadTableOptions();
+        final Map<String, List<ForeignKey>> foreignKeys = mySQL.loadForeignKeys();
+
+        final Map<String, Table> tables = new HashMap<>();
+        for (final Map.Entry<String, List<Column>> entry : columns.entrySet()) {
+            final String tableName = entry.getKey();
+            final List<Index> tableIndexes;
+            if (indexes.containsKey(tableName)) {
+                tableIndexes = indexes.get(tableName).getIndexes();
+            } else {
+                tableIndexes = new ArrayList<>(0);
+            }
+            List<ForeignKey> tableForeignKeys = foreignKeys.get(tableName);
+            if (tableForeignKeys == null) {
+                tableForeignKeys = Collections.emptyList();
+            }
+            tables.put(tableName, new Table(
+                    tableName, entry.getValue(), tableIndexes, options.get(tableName), tableForeignKeys));
+        }
+        return tables;
+    }
+
+    /**
+     * Loads the columns of every table.
+     *
+     * @param quotedDefaults whether COLUMN_DEFAULT is an SQL literal, as on MariaDB 10.2.7 and later, rather than
+     * the value SHOW COLUMNS gives
+     * @param generationExpressions whether to query GENERATION_EXPRESSION
+     */
+    private Map<String, List<Column>> loadColumns(final boolean quotedDefaults, final boolean generationExpressions)
+            throws SQLException {
+        final Map<String, List<Column>> columns = new LinkedHashMap<>();
+        final String query = String.format(COLUMNS_QUERY, generationExpressions ? ", c.GENERATION_EXPRESSION" : "");
+        this.connectionStrategy.queryEach(query, new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                final String tableName = rs.getString("TABLE_NAME");
+                List<Column> tableColumns = columns.get(tableName);
+                if (tableColumns == null) {
+                    tableColumns = new ArrayList<>();
+                    columns.put(tableName, tableColumns);
+                }
+                //MySQL gives an empty expression rather than null for columns that aren't generated
+                String generationExpression = generationExpressions ? rs.getString("GENERATION_EXPRESSION") : null;
+                if (generationExpression != null && generationExpression.isEmpty()) {
+                    generationExpression = null;
+                }
+                tableColumns.add(new Column(
+                        symbols.intern(rs.getString("COLUMN_NAME")),
+                        symbols.intern(rs.getString("COLUMN_TYPE")),
+                        rs.getString("IS_NULLABLE").equals("YES"),
+                        symbols.intern(rs.getString("COLUMN_KEY")),
+                        symbols.intern(quotedDefaults
+                                ? unquoteDefault(rs.getString("COLUMN_DEFAULT"))
+                                : rs.getString("COLUMN_DEFAULT")),
+                        symbols.intern(rs.getString("EXTRA")),
+                        symbols.intern(rs.getString("COLLATION_NAME")),
+                        symbols.intern(rs.getString("COLUMN_COMMENT")),
+                        symbols.intern(generationExpression)));
+            }
+        }, ConnectionStrategy.STREAMING_FETCH_SIZE);
+        return columns;
+    }
+
+    /**
+     * Converts a MariaDB COLUMN_DEFAULT literal to the value SHOW COLUMNS gives, e.g. <code>'Rex'</code> to
+     * <code>Rex</code> and <code>NULL</code> to null. Numbers and expressions are left as they are.
+     *
+     * @param defaultValue the COLUMN_DEFAULT value
+     * @return the default value
+     */
+    static String unquoteDefault(final String defaultValue) {
+        if (defaultValue == null || defaultValue.equals("NULL")) {
+            return null;
+        }
+        if (defaultValue.length() < 2 || defaultValue.charAt(0) != '\''
+                || defaultValue.charAt(defaultValue.length() - 1) != '\'') {
+            return defaultValue;
+        }
+        final StringBuilder sb = new StringBuilder(defaultValue.length() - 2);
+        for (int i = 1; i < defaultValue.length() - 1; i++) {
+            final char c = defaultValue.charAt(i);
+            if (c == '\'' && defaultValue.charAt(i + 1) == '\'') {
+                i++;
+            } else if (c == '\\' && i + 1 < defaultValue.length() - 1) {
+                i++;
+                switch (defaultValue.charAt(i)) {
+                    case '0':
+                        sb.append('\0');
+                        continue;
+                    case 'n':
+                        sb.append('\n');
+                        continue;
+                    case 'r':
+                        sb.append('\r');
+                        continue;
+                    case 'Z':
+                        sb.append('\032');
+                        continue;
+                    default:
+                        sb.append(defaultValue.charAt(i));
+                        continue;
+                }
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private Map<String, TableOptions> loadTableOptions() throws SQLException {
+        final Map<String, TableOptions> options = new HashMap<>();
+        this.connectionStrategy.queryEach(TABLES_QUERY, new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                final Object autoIncrement = rs.getObject("AUTO_INCREMENT");
+                options.put(rs.getString("TABLE_NAME"), new TableOptions(
+                        rs.getString("ENGINE"),
+                        rs.getString("TABLE_COLLATION"),
+                        rs.getString("ROW_FORMAT"),
+                        autoIncrement == null ? null : ((Number) autoIncrement).longValue(),
+                        rs.getString("TABLE_COMMENT")));
+            }
+        });
+        return options;
+    }
+
+    private Map<String, IndexesBuilder> loadIndexes() throws SQLException {
+        final Map<String, IndexesBuilder> indexes = new HashMap<>();
+        this.connectionStrategy.queryEach(INDEXES_QUERY, new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                final String tableName = rs.getString("TABLE_NAME");
+                IndexesBuilder indexesBuilder = indexes.get(tableName);
+                if (indexesBuilder == null) {
+                    indexesBuilder = new IndexesBuilder(tableName);
+                    indexes.put(tableName, indexesBuilder);
+                }
+                final Object subPart = rs.getObject("SUB_PART");
+                indexesBuilder.addIndex(
+                        symbols.intern(rs.getString("INDEX_NAME")),
+                        rs.getBoolean("NON_UNIQUE"),
+                        symbols.intern(rs.getString("COLUMN_NAME")),
+                        subPart == null ? null : ((Number) subPart).intValue(),
+                        symbols.intern(rs.getString("INDEX_TYPE")));
+            }
+        }, ConnectionStrategy.STREAMING_FETCH_SIZE);
+        return indexes;
+    }
+
+}
@@ -26,13 +26,20 @@ package com.jbuncle.mysqlsynchroniser.structure;
 import com.jbuncle.mysqlsynchroniser.structure.objects.IndexesBuilder;
 import com.jbuncle.mysqlsynchroniser.structure.objects.View;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKey;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKeysBuilder;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.TableOptions;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
 import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.connection.RowHandler;
 import com.jbuncle.mysqlsynchroniser.connection.RowMapper;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,34 +49,311 @@ import javax.sql.DataSource;
  *
  * @author James Buncle <jbuncle@hotmail.com>
  */
-public class MySQL {
+public class MySQL implements TableLoader {
+
+    //Formatted with the GENERATION_EXPRESSION column where the server has it
+    private static final String COLUMN_FINGERPRINTS_QUERY = "SELECT c.TABLE_NAME, COUNT(*), "
+            + "BIT_XOR(CRC32(CONCAT_WS('|', c.COLUMN_NAME, c.COLUMN_TYPE, c.IS_NULLABLE, c.COLUMN_KEY, "
+            + "c.COLUMN_DEFAULT, ISNULL(c.COLUMN_DEFAULT), c.EXTRA, "
+            + "c.COLLATION_NAME, ISNULL(c.COLLATION_NAME), c.COLUMN_COMMENT%s))) "
+            + "FROM INFORMATION_SCHEMA.COLUMNS c "
+            + "INNER JOIN INFORMATION_SCHEMA.TABLES t "
+            + "ON t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME "
+            + "WHERE c.TABLE_SCHEMA = DATABASE() AND t.TABLE_TYPE = 'BASE TABLE' "
+            + "GROUP BY c.TABLE_NAME;";
+
+    private static final String INDEX_FINGERPRINTS_QUERY = "SELECT TABLE_NAME, COUNT(*), "
+            + "BIT_XOR(CRC32(CONCAT_WS('|', INDEX_NAME, NON_UNIQUE, SEQ_IN_INDEX, COLUMN_NAME, SUB_PART, INDEX_TYPE))) "
+            + "FROM INFORMATION_SCHEMA.STATISTICS "
+            + "WHERE TABLE_SCHEMA = DATABASE() "
+            + "GROUP BY TABLE_NAME;";
+
+    //Aliased to the SHOW TABLE STATUS column names
+    private static final String TABLE_OPTIONS_QUERY = "SELECT TABLE_NAME AS Name, ENGINE AS Engine, "
+            + "TABLE_COLLATION AS Collation, ROW_FORMAT AS Row_format, AUTO_INCREMENT AS Auto_increment, "
+            + "TABLE_COMMENT AS Comment "
+            + "FROM INFORMATION_SCHEMA.TABLES "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN (";
+
+    private static final String FOREIGN_KEYS_QUERY = "SELECT k.TABLE_SCHEMA, k.TABLE_NAME, k.CONSTRAINT_NAME, "
+            + "k.COLUMN_NAME, k.REFERENCED_TABLE_SCHEMA, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, "
+            + "r.UPDATE_RULE, r.DELETE_RULE "
+            + "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE k "
+            + "INNER JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS r "
+            + "ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.TABLE_NAME = k.TABLE_NAME "
+            + "AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME "
+            + "WHERE k.TABLE_SCHEMA = DATABASE() AND k.REFERENCED_TABLE_NAME IS NOT NULL";
+
+    private static final String GENERATION_EXPRESSIONS_QUERY = "SELECT COLUMN_NAME, GENERATION_EXPRESSION "
+            + "FROM INFORMATION_SCHEMA.COLUMNS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ";
+
+    private static final String FOREIGN_KEYS_ORDER = " ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.ORDINAL_POSITION;";
 
     private final ConnectionStrategy connectionStrategy;
+    private final SymbolTable symbols;
 
     public MySQL(final DataSource dataSource) {
-        this.connectionStrategy = new ConnectionStrategy(dataSource);
+        this(new ConnectionStrategy(dataSource));
+    }
+
+    public MySQL(final ConnectionStrategy connectionStrategy) {
+        this.connectionStrategy = connectionStrategy;
+        this.symbols = SymbolTable.getShared();
     }
 
     public Database loadDatabase() throws SQLException {
-        return new Database(loadTables(), loadViews());
+        return loadDatabase(this);
     }
+
+    /**
+     * Loads the database, using the given loader for the tables (e.g. an
+     * {@link InformationSchemaLoader} for schemas with many tables).
+     *
+     * @param tableLoader the loader used to load the tables
+     * @return the loaded database
+     * @throws SQLException
+     */
+    public Database loadDatabase(final TableLoader tableLoader) throws SQLException {
+        return new Database(tableLoader.loadTables(), loadViews());
+    }
+
+    /**
+     * Loads the database with only the given tables (and all views).
+     *
+     * @param tableNames the names of the tables to load
+     * @return the loaded database
+     * @throws SQLException
+     */
+    public Database loadDatabase(final Collection<String> tableNames) throws SQLException {
+        return new Database(loadTables(tableNames), loadViews());
+    }
+
+    @Override
     public Map<String, Table> loadTables() throws SQLException {
+        return loadTables(getTables(), loadTableOptions(), loadForeignKeys());
+    }
+
+    /**
+     * Loads only the columns and indexes of the given tables, which is all a comparison needs. Their options and
+     * foreign keys aren't loaded, as those queries read INFORMATION_SCHEMA, so tables missing from a target should
+     * be created with SHOW CREATE TABLE or loaded with {@link #loadTableDefinition(java.lang.String)}.
+     *
+     * @param tableNames the names of the tables to load
+     * @return the tables keyed by name
+     * @throws SQLException
+     */
+    public Map<String, Table> loadTables(final Collection<String> tableNames) throws SQLException {
+        return loadTables(tableNames, Collections.<String, TableOptions>emptyMap(),
+                Collections.<String, List<ForeignKey>>emptyMap());
+    }
+
+    private Map<String, Table> loadTables(
+            final Collection<String> tableNames,
+            final Map<String, TableOptions> options,
+            final Map<String, List<ForeignKey>> foreignKeys)
+            throws SQLException {
         final Map<String, Table> tables = new HashMap<>();
-        for (final String tableName : getTables()) {
-            Table table = loadTable(tableName);
+        for (final String tableName : tableNames) {
+            Table table = loadTable(tableName, options.get(tableName), foreignKeys.get(tableName));
             tables.put(tableName, table);
         }
         return tables;
     }
 
+    /**
+     * Loads a structural fingerprint for every base table, computed on the server from INFORMATION_SCHEMA. Tables
+     * with equal fingerprints have the same columns and indexes, so can be skipped without loading them.
+     *
+     * @return the fingerprints keyed by table name
+     * @throws SQLException
+     */
+    public Map<String, String> loadTableFingerprints() throws SQLException {
+        final Map<String, String> columnFingerprints = loadFingerprints(String.format(COLUMN_FINGERPRINTS_QUERY,
+                loadServerVersion().hasGenerationExpressions() ? ", c.GENERATION_EXPRESSION" : ""));
+        final Map<String, String> indexFingerprints = loadFingerprints(INDEX_FINGERPRINTS_QUERY);
+
+        final Map<String, String> fingerprints = new HashMap<>();
+        for (final Map.Entry<String, String> entry : columnFingerprints.entrySet()) {
+            String indexFingerprint = indexFingerprints.get(entry.getKey());
+            if (indexFingerprint == null) {
+                indexFingerprint = "0:0";
+            }
+            fingerprints.put(entry.getKey(), entry.getValue() + ":" + indexFingerprint);
+        }
+        return fingerprints;
+    }
+
+    private Map<String, String> loadFingerprints(final String query) throws SQLException {
+        final Map<String, String> fingerprints = new HashMap<>();
+        this.connectionStrategy.queryEach(query, new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                fingerprints.put(rs.getString(1), rs.getLong(2) + ":" + rs.getLong(3));
+            }
+        });
+        return fingerprints;
+    }
+
+    /**
+     * Loads the table's columns and indexes with SHOW FULL COLUMNS and SHOW INDEXES, which is all a comparison needs.
+     *
+     * @param tableName the table name
+     * @return the table, without options or foreign keys
+     * @throws SQLException
+     * @see #loadTableDefinition(java.lang.String)
+     */
     public Table loadTable(final String tableName) throws SQLException {
+        return loadTable(tableName, null, null);
+    }
+
+    /**
+     * Loads the table with its options and foreign keys as well, as needed to create it from the model.
+     *
+     * @param tableName the table name
+     * @return the table
+     * @throws SQLException
+     */
+    public Table loadTableDefinition(final String tableName) throws SQLException {
+        final List<String> tableNames = Collections.singletonList(tableName);
+        return loadTable(tableName,
+                loadTableOptions(tableNames).get(tableName),
+                loadForeignKeys(tableNames).get(tableName));
+    }
+
+    Table loadTable(
+            final String tableName,
+            final TableOptions options,
+            final List<ForeignKey> foreignKeys)
+            throws SQLException {
         final List<Column> columns = loadFromShowFullColumns(tableName);
         final List<Index> indexes = loadIndexes(tableName);
-        final Table table = new Table(tableName, columns, indexes);
+        final Table table = new Table(tableName, columns, indexes, options,
+                foreignKeys == null ? Collections.<ForeignKey>emptyList() : foreignKeys);
         return table;
     }
 
-    private List<String> getTables() throws SQLException {
+    /**
+     * Loads the options of every table, keyed by table name.
+     *
+     * @return the table options
+     * @throws SQLException
+     */
+    public Map<String, TableOptions> loadTableOptions() throws SQLException {
+        final Map<String, TableOptions> options = new HashMap<>();
+        this.connectionStrategy.queryEach("SHOW TABLE STATUS;", new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                options.put(rs.getString("Name"), loadFromShowTableStatus(rs));
+            }
+        });
+        return options;
+    }
+
+    /**
+     * Loads the options of the given tables, keyed by table name.
+     *
+     * Reads INFORMATION_SCHEMA.TABLES for just the named tables, as SHOW TABLE STATUS reads the status of every
+     * table in the schema before filtering.
+     *
+     * @param tableNames the names of the tables
+     * @return the table options
+     * @throws SQLException
+     */
+    public Map<String, TableOptions> loadTableOptions(final Collection<String> tableNames) throws SQLException {
+        final Map<String, TableOptions> options = new HashMap<>();
+        if (tableNames.isEmpty()) {
+            return options;
+        }
+        final StringBuilder query = new StringBuilder(TABLE_OPTIONS_QUERY);
+        for (final String tableName : tableNames) {
+            query.append(quote(tableName)).append(", ");
+        }
+        query.setLength(query.length() - 2);
+        query.append(");");
+        this.connectionStrategy.queryEach(query.toString(), new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                options.put(rs.getString("Name"), loadFromShowTableStatus(rs));
+            }
+        });
+        return options;
+    }
+
+    /**
+     * Loads the foreign keys of every table, keyed by table name.
+     *
+     * @return the foreign keys
+     * @throws SQLException
+     */
+    public Map<String, List<ForeignKey>> loadForeignKeys() throws SQLException {
+        return loadForeignKeys(FOREIGN_KEYS_QUERY + FOREIGN_KEYS_ORDER);
+    }
+
+    /**
+     * Loads the foreign keys of the given tables, keyed by table name.
+     *
+     * @param tableNames the names of the tables
+     * @return the foreign keys
+     * @throws SQLException
+     */
+    public Map<String, List<ForeignKey>> loadForeignKeys(final Collection<String> tableNames) throws SQLException {
+        if (tableNames.isEmpty()) {
+            return new HashMap<>();
+        }
+        final StringBuilder query = new StringBuilder(FOREIGN_KEYS_QUERY).append(" AND k.TABLE_NAME IN (");
+        for (final String tableName : tableNames) {
+            query.append(quote(tableName)).append(", ");
+        }
+        query.setLength(query.length() - 2);
+        query.append(")").append(FOREIGN_KEYS_ORDER);
+        return loadForeignKeys(query.toString());
+    }
+
+    private Map<String, List<ForeignKey>> loadForeignKeys(final String query) throws SQLException {
+        final Map<String, ForeignKeysBuilder> builders = new HashMap<>();
+        this.connectionStrategy.queryEach(query, new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                final String tableName = rs.getString("TABLE_NAME");
+                ForeignKeysBuilder builder = builders.get(tableName);
+                if (builder == null) {
+                    builder = new ForeignKeysBuilder();
+                    builders.put(tableName, builder);
+                }
+                final String referencedSchema = rs.getString("REFERENCED_TABLE_SCHEMA");
+                builder.addForeignKey(
+                        symbols.intern(rs.getString("CONSTRAINT_NAME")),
+                        symbols.intern(rs.getString("COLUMN_NAME")),
+                        referencedSchema.equals(rs.getString("TABLE_SCHEMA")) ? null : referencedSchema,
+                        symbols.intern(rs.getString("REFERENCED_TABLE_NAME")),
+                        symbols.intern(rs.getString("REFERENCED_COLUMN_NAME")),
+                        symbols.intern(rs.getString("UPDATE_RULE")),
+                        symbols.intern(rs.getString("DELETE_RULE")));
+            }
+        });
+        final Map<String, List<ForeignKey>> foreignKeys = new HashMap<>();
+        for (final Map.Entry<String, ForeignKeysBuilder> entry : builders.entrySet()) {
+            foreignKeys.put(entry.getKey(), entry.getValue().getForeignKeys());
+        }
+        return foreignKeys;
+    }
+
+    private static String quote(final String str) {
+        return "'" + str.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    private static TableOptions loadFromShowTableStatus(final ResultSet rs) throws SQLException {
+        final Object autoIncrement = rs.getObject("Auto_increment");
+        return new TableOptions(
+                rs.getString("Engine"),
+                rs.getString("Collation"),
+                rs.getString("Row_format"),
+                autoIncrement == null ? null : ((Number) autoIncrement).longValue(),
+                rs.getString("Comment"));
+    }
+
+    List<String> getTables() throws SQLException {
         return this.connectionStrategy.query("SHOW FULL TABLES WHERE Table_type = 'BASE TABLE';", new RowMapper<String>() {
             @Override
             public String rowToObject(ResultSet rs) throws SQLException {
@@ -78,30 +362,84 @@ public class MySQL {
         });
     }
 
+    public ServerVersion loadServerVersion() throws SQLException {
+        return ServerVersion.parse(this.connectionStrategy.query("SELECT VERSION();", new RowMapper<String>() {
+            @Override
+            public String rowToObject(ResultSet rs) throws SQLException {
+                return rs.getString(1);
+            }
+        }).get(0));
+    }
+
+    /**
+     * Gets the largest packet, and so the largest statement, the server accepts.
+     *
+     * @return max_allowed_packet, in bytes
+     * @throws SQLException
+     */
+    public long loadMaxAllowedPacket() throws SQLException {
+        return this.connectionStrategy.query("SELECT @@max_allowed_packet;", new RowMapper<Long>() {
+            @Override
+            public Long rowToObject(ResultSet rs) throws SQLException {
+                return rs.getLong(1);
+            }
+        }).get(0);
+    }
+
     private Column loadFromShowFullColumns(final ResultSet rs) throws SQLException {
-        final String field = rs.getString("Field");
-        final String type = rs.getString("Type");
+        final String field = symbols.intern(rs.getString("Field"));
+        final String type = symbols.intern(rs.getString("Type"));
         final boolean nullable = rs.getString("Null").equals("YES");
-        final String key = rs.getString("Key");
-        final String defaultValue = rs.getString("Default");
-        final String extra = rs.getString("Extra");
-        final String collation = rs.getString("Collation");
-        final String comment = rs.getString("Comment");
+        final String key = symbols.intern(rs.getString("Key"));
+        final String defaultValue = symbols.intern(rs.getString("Default"));
+        final String extra = symbols.intern(rs.getString("Extra"));
+        final String collation = symbols.intern(rs.getString("Collation"));
+        final String comment = symbols.intern(rs.getString("Comment"));
 
         return new Column(field, type, nullable, key, defaultValue, extra, collation, comment);
     }
 
     public List<Column> loadFromShowFullColumns(final String tableName) throws SQLException {
 
-        return this.connectionStrategy.query("SHOW FULL COLUMNS IN " + tableName + ";", new RowMapper<Column>() {
+        final List<Column> columns = this.connectionStrategy.query("SHOW FULL COLUMNS IN " + tableName + ";",
+                new RowMapper<Column>() {
             @Override
             public Column rowToObject(ResultSet rs) throws SQLException {
                 return loadFromShowFullColumns(rs);
             }
         });
+        for (final Column column : columns) {
+            if (column.isGenerated()) {
+                //SHOW COLUMNS doesn't give the expression, so only tables with generated columns need the extra query
+                return withGenerationExpressions(tableName, columns);
+            }
+        }
+        return columns;
+    }
+
+    private List<Column> withGenerationExpressions(final String tableName, final List<Column> columns)
+            throws SQLException {
+        final Map<String, String> expressions = new HashMap<>();
+        this.connectionStrategy.queryEach(GENERATION_EXPRESSIONS_QUERY + quote(tableName) + ";", new RowHandler() {
+            @Override
+            public void handleRow(ResultSet rs) throws SQLException {
+                expressions.put(rs.getString("COLUMN_NAME"), rs.getString("GENERATION_EXPRESSION"));
+            }
+        });
+        final List<Column> generated = new ArrayList<>(columns.size());
+        for (final Column column : columns) {
+            if (column.isGenerated()) {
+                generated.add(new Column(column.getColumnName(), column.getType(), column.isNullable(),
+                        column.getKey(), column.getDefaultValue(), column.getExtra(), column.getCollation(),
+                        column.getComment(), symbols.intern(expressions.get(column.getColumnName()))));
+            } else {
+                generated.add(column);
+            }
+        }
+        return generated;
     }
 
-    private Map<String, View> loadViews()
+    public Map<String, View> loadViews()
             throws SQLException {
         final Map<String, View> views = new HashMap<String, View>();
         for (final String viewName : getViewNames()) {
@@ -133,15 +471,17 @@ public class MySQL {
             throws SQLException {
 
         final IndexesBuilder indexesBuilder = new IndexesBuilder(tableName);
-        this.connectionStrategy.query("SHOW INDEXES FROM `" + tableName + "`;",
-                new RowMapper<String>() {
+        this.connectionStrategy.queryEach("SHOW INDEXES FROM `" + tableName + "`;",
+                new RowHandler() {
             @Override
-            public String rowToObject(ResultSet rs) throws SQLException {
+            public void handleRow(ResultSet rs) throws SQLException {
                 final boolean nonUnique = rs.getBoolean("Non_unique");
-                final String keyName = rs.getString("Key_name");
-                final String columnName = rs.getString("Column_name");
-                indexesBuilder.addIndex(keyName, nonUnique, columnName);
-                return null;
+                final String keyName = symbols.intern(rs.getString("Key_name"));
+                final String columnName = symbols.intern(rs.getString("Column_name"));
+                final Object subPart = rs.getObject("Sub_part");
+                indexesBuilder.addIndex(keyName, nonUnique, columnName,
+                        subPart == null ? null : ((Number) subPart).intValue(),
+                        symbols.intern(rs.getString("Index_type")));
             }
         });
         return indexesBuilder.getIndexes();
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import com.jbuncle.mysqlsynchroniser.connection.SessionConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKey;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.TableOptions;
+import com.jbuncle.mysqlsynchroniser.util.FutureUtils;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+
+/**
+ * Loads tables using per-table SHOW statements spread across a number of worker threads, never holding more than
+ * a fixed number of connections to the server at once.
+ *
+ * Each load opens a {@link SessionConnectionStrategy} with the maximum number of connections, which workers wait
+ * on when all of its connections are in use, and closes it once the tables are loaded.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class ParallelTableLoader implements TableLoader {
+
+    private final DataSource dataSource;
+    private final int threads;
+    private final int maxConnections;
+
+    /**
+     *
+     * @param dataSource the database to load the tables of
+     * @param threads the number of worker threads
+     * @param maxConnections the maximum number of connections open at once
+     */
+    public ParallelTableLoader(final DataSource dataSource, final int threads, final int maxConnections) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("At least one connection is required");
+        }
+        this.dataSource = dataSource;
+        this.threads = threads;
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public Map<String, Table> loadTables() throws SQLException {
+        try (final SessionConnectionStrategy session = new SessionConnectionStrategy(dataSource, maxConnections)) {
+            return loadTables(new MySQL(session));
+        }
+    }
+
+    private Map<String, Table> loadTables(final MySQL mySQL) throws SQLException {
+        final List<String> tableNames = mySQL.getTables();
+        final Map<String, TableOptions> options = mySQL.loadTableOptions();
+        final Map<String, List<ForeignKey>> foreignKeys = mySQL.loadForeignKeys();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Table>> futures = new ArrayList<>(tableNames.size());
+            for (final String tableName : tableNames) {
+                futures.add(executor.submit(new LoadTableTask(
+                        mySQL, tableName, options.get(tableName), foreignKeys.get(tableName))));
+            }
+
+            final Map<String, Table> tables = new HashMap<>();
+            for (final Future<Table> future : futures) {
+                final Table table = FutureUtils.get(future);
+                tables.put(table.getTableName(), table);
+            }
+            return tables;
+        } finally {
+            //Interrupts any outstanding loads if one failed
+            executor.shutdownNow();
+        }
+    }
+
+    private static class LoadTableTask implements Callable<Table> {
+
+        private final MySQL mySQL;
+        private final String tableName;
+        private final TableOptions options;
+        private final List<ForeignKey> foreignKeys;
+
+        public LoadTableTask(
+                final MySQL mySQL,
+                final String tableName,
+                final TableOptions options,
+                final List<ForeignKey> foreignKeys) {
+            this.mySQL = mySQL;
+            this.tableName = tableName;
+            this.options = options;
+            this.foreignKeys = foreignKeys;
+        }
+
+        @Override
+        public Table call() throws SQLException {
+            return mySQL.loadTable(tableName, options, foreignKeys);
+        }
+
+    }
+
+}
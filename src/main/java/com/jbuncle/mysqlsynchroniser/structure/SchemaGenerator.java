@@ -0,0 +1,468 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.structure.diff.DatabaseDiff;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ColumnType;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.View;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javax.sql.DataSource;
+
+/**
+ * Generates synthetic schemas for load and scale testing, e.g. a source schema and a slightly different target
+ * schema per tenant. The same settings and seed always generate the same schema.
+ *
+ * Generated tables match what a server reports back once they're created, e.g. column keys follow the indexes
+ * and defaults are formatted as the server formats them, so a created schema loads back equal to the model.
+ *
+ * <pre>
+ * final SchemaGenerator generator = new SchemaGenerator(1);
+ * generator.setTableCount(5000);
+ * final Database source = generator.generate();
+ * final Database target = generator.mutate(source);
+ * </pre>
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SchemaGenerator {
+
+    private static final int MUTATION_KINDS = 5;
+
+    //Longest utf8mb4 prefix that fits the 767 byte index key limit of COMPACT row formats
+    private static final int MAX_INDEX_PREFIX = 191;
+
+    private final Random random;
+    private final Map<String, Integer> columnTypes;
+    private String tablePrefix;
+    private int tableCount;
+    private int minColumns;
+    private int maxColumns;
+    private int maxIndexes;
+    private int maxIndexColumns;
+    private double uniqueIndexRate;
+    private double nullableRate;
+    private double mutationRate;
+    private double tableDropRate;
+
+    public SchemaGenerator(final long seed) {
+        this.random = new Random(seed);
+        this.columnTypes = new LinkedHashMap<>();
+        this.columnTypes.put("int(11)", 6);
+        this.columnTypes.put("int(10) unsigned", 3);
+        this.columnTypes.put("bigint(20) unsigned", 2);
+        this.columnTypes.put("tinyint(1)", 2);
+        this.columnTypes.put("decimal(10,2)", 1);
+        this.columnTypes.put("varchar(255)", 6);
+        this.columnTypes.put("varchar(32)", 2);
+        this.columnTypes.put("text", 1);
+        this.columnTypes.put("datetime", 3);
+        this.columnTypes.put("enum('new','active','deleted')", 1);
+        this.tablePrefix = "table_";
+        this.tableCount = 100;
+        this.minColumns = 3;
+        this.maxColumns = 20;
+        this.maxIndexes = 3;
+        this.maxIndexColumns = 3;
+        this.uniqueIndexRate = 0.1;
+        this.nullableRate = 0.3;
+        this.mutationRate = 0.1;
+        this.tableDropRate = 0;
+    }
+
+    public void setTablePrefix(final String tablePrefix) {
+        this.tablePrefix = tablePrefix;
+    }
+
+    public void setTableCount(final int tableCount) {
+        this.tableCount = tableCount;
+    }
+
+    /**
+     * Sets the range of the number of columns per table, excluding the <code>id</code> primary key column.
+     *
+     * @param minColumns the minimum number of columns
+     * @param maxColumns the maximum number of columns (inclusive)
+     */
+    public void setColumnCount(final int minColumns, final int maxColumns) {
+        if (minColumns < 1 || maxColumns < minColumns) {
+            throw new IllegalArgumentException("Invalid column range " + minColumns + "-" + maxColumns);
+        }
+        this.minColumns = minColumns;
+        this.maxColumns = maxColumns;
+    }
+
+    /**
+     * Sets the column types to pick from, with the relative weight of each type.
+     *
+     * @param columnTypes the column types (e.g. <code>varchar(255)</code>) and their weights
+     */
+    public void setColumnTypes(final Map<String, Integer> columnTypes) {
+        if (columnTypes.isEmpty()) {
+            throw new IllegalArgumentException("No column types");
+        }
+        this.columnTypes.clear();
+        this.columnTypes.putAll(columnTypes);
+    }
+
+    /**
+     * Sets the shape of secondary keys.
+     *
+     * @param maxIndexes the maximum number of secondary keys per table
+     * @param maxIndexColumns the maximum number of columns per key
+     * @param uniqueIndexRate the proportion of unique keys, between 0 and 1
+     */
+    public void setIndexes(final int maxIndexes, final int maxIndexColumns, final double uniqueIndexRate) {
+        this.maxIndexes = maxIndexes;
+        this.maxIndexColumns = maxIndexColumns;
+        this.uniqueIndexRate = uniqueIndexRate;
+    }
+
+    public void setNullableRate(final double nullableRate) {
+        this.nullableRate = nullableRate;
+    }
+
+    /**
+     * Sets the proportion of tables changed by {@link #mutate(com.jbuncle.mysqlsynchroniser.structure.objects.Database)}.
+     * Each changed table has a column's type changed, a column added or dropped, or a key added or dropped.
+     *
+     * @param mutationRate the proportion of changed tables, between 0 and 1
+     */
+    public void setMutationRate(final double mutationRate) {
+        this.mutationRate = mutationRate;
+    }
+
+    /**
+     * Sets the proportion of tables missing after a mutation.
+     *
+     * @param tableDropRate the proportion of dropped tables, between 0 and 1
+     */
+    public void setTableDropRate(final double tableDropRate) {
+        this.tableDropRate = tableDropRate;
+    }
+
+    /**
+     * Generates a database.
+     *
+     * @return the generated database
+     */
+    public Database generate() {
+        final Map<String, Table> tables = new LinkedHashMap<>();
+        for (int i = 0; i < tableCount; i++) {
+            final Table table = generateTable(tablePrefix + i);
+            tables.put(table.getTableName(), table);
+        }
+        return new Database(tables, new LinkedHashMap<String, View>());
+    }
+
+    /**
+     * Generates a copy of the given database with some tables changed or dropped, as set by
+     * {@link #setMutationRate(double)} and {@link #setTableDropRate(double)}. Unchanged tables are shared with the
+     * given database.
+     *
+     * @param database the database to copy
+     * @return the changed copy
+     */
+    public Database mutate(final Database database) {
+        final Map<String, Table> tables = new LinkedHashMap<>();
+        for (final Table table : database.getTables().values()) {
+            if (random.nextDouble() < tableDropRate) {
+                continue;
+            }
+            if (random.nextDouble() < mutationRate) {
+                tables.put(table.getTableName(), mutateTable(table));
+            } else {
+                tables.put(table.getTableName(), table);
+            }
+        }
+        return new Database(tables, new LinkedHashMap<>(database.getViews()));
+    }
+
+    /**
+     * Gets the CREATE TABLE statements for the given database, e.g. to create it on a local server.
+     *
+     * @param database the database
+     * @return the statements
+     */
+    public static List<String> getCreateStatements(final Database database) {
+        final Database empty = new Database(new LinkedHashMap<String, Table>(), new LinkedHashMap<String, View>());
+        return new DatabaseDiff(database, empty).diff();
+    }
+
+    /**
+     * Creates the tables of the given database on a server.
+     *
+     * @param database the database to create
+     * @param dataSource the (empty) database to create the tables in
+     * @throws SQLException
+     */
+    public static void create(final Database database, final DataSource dataSource) throws SQLException {
+        new ConnectionStrategy(dataSource).batchUpdate(getCreateStatements(database));
+    }
+
+    private Table generateTable(final String tableName) {
+        final int columnCount = minColumns + random.nextInt(maxColumns - minColumns + 1);
+        final List<Column> columns = new ArrayList<>(columnCount + 1);
+        columns.add(new Column("id", "int(10) unsigned", false, "PRI", null, "auto_increment", null, ""));
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(generateColumn("column_" + i));
+        }
+        final List<Index> indexes = new ArrayList<>(maxIndexes + 1);
+        indexes.add(new Index(tableName, false, "PRIMARY", Collections.singletonList("id")));
+        final int indexCount = random.nextInt(maxIndexes + 1);
+        for (int i = 0; i < indexCount; i++) {
+            final Index index = generateIndex(tableName, "key_" + i, columns);
+            if (index != null) {
+                indexes.add(index);
+            }
+        }
+        return new Table(tableName, withKeys(columns, indexes), indexes);
+    }
+
+    private Column generateColumn(final String columnName) {
+        final String type = pickColumnType();
+        final ColumnType columnType = ColumnType.valueOf(type);
+        final boolean nullable = random.nextDouble() < nullableRate;
+        final String collation = isText(columnType) ? "utf8mb4_unicode_ci" : null;
+        final String defaultValue = nullable ? null : getDefaultValue(columnType);
+        return new Column(columnName, type, nullable, "", defaultValue, "", collation, "");
+    }
+
+    private String pickColumnType() {
+        int total = 0;
+        for (final int weight : columnTypes.values()) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (final Map.Entry<String, Integer> entry : columnTypes.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Invalid column type weights");
+    }
+
+    private static boolean isText(final ColumnType columnType) {
+        final String baseType = columnType.getBaseType();
+        return baseType.endsWith("char") || baseType.endsWith("text") || baseType.equals("enum");
+    }
+
+    /**
+     * Gets a valid default for a NOT NULL column, or null for types that can't have one.
+     */
+    private static String getDefaultValue(final ColumnType columnType) {
+        final String baseType = columnType.getBaseType();
+        if (baseType.endsWith("int")) {
+            return "0";
+        } else if (baseType.equals("decimal")) {
+            //Shown with the column's scale, e.g. 0.00
+            final Integer scale = columnType.getScale();
+            final StringBuilder sb = new StringBuilder("0");
+            if (scale != null && scale > 0) {
+                sb.append('.');
+                for (int i = 0; i < scale; i++) {
+                    sb.append('0');
+                }
+            }
+            return sb.toString();
+        } else if (baseType.endsWith("char")) {
+            return "";
+        } else if (baseType.equals("enum")) {
+            return columnType.getValues().get(0);
+        }
+        return null;
+    }
+
+    /**
+     * Generates a key over random columns, excluding text and blob columns (which need a prefix length). Long
+     * character columns are indexed by a prefix, so the key can be created whatever the row format.
+     *
+     * @return the key, or null if there are no columns that can be indexed
+     */
+    private Index generateIndex(final String tableName, final String keyName, final List<Column> columns) {
+        final List<Column> candidates = new ArrayList<>(columns.size());
+        for (final Column column : columns.subList(1, columns.size())) {
+            if (isIndexable(column)) {
+                candidates.add(column);
+            }
+        }
+        if (candidates.isEmpty() || maxIndexColumns < 1) {
+            return null;
+        }
+        Collections.shuffle(candidates, random);
+        final int columnCount = 1 + random.nextInt(Math.min(maxIndexColumns, candidates.size()));
+        final boolean nonUnique = random.nextDouble() >= uniqueIndexRate;
+        final List<String> columnNames = new ArrayList<>(columnCount);
+        final List<Integer> subParts = new ArrayList<>(columnCount);
+        for (final Column column : candidates.subList(0, columnCount)) {
+            columnNames.add(column.getColumnName());
+            subParts.add(getSubPart(column));
+        }
+        return new Index(tableName, nonUnique, keyName, columnNames, subParts, null);
+    }
+
+    private static boolean isIndexable(final Column column) {
+        final String baseType = column.getColumnType().getBaseType();
+        return !baseType.endsWith("text") && !baseType.endsWith("blob");
+    }
+
+    private static Integer getSubPart(final Column column) {
+        final ColumnType columnType = column.getColumnType();
+        if (columnType.getBaseType().endsWith("char")
+                && columnType.getLength() != null
+                && columnType.getLength() > MAX_INDEX_PREFIX) {
+            return MAX_INDEX_PREFIX;
+        }
+        return null;
+    }
+
+    /**
+     * Sets each column's key to the one the server reports for the given indexes: PRI for primary key columns, UNI
+     * for the column of a single column unique key and MUL for the first column of any other key.
+     */
+    private static List<Column> withKeys(final List<Column> columns, final List<Index> indexes) {
+        final Map<String, String> keys = new HashMap<>();
+        for (final Index index : indexes) {
+            final List<String> columnNames = index.getColumnNames();
+            if (index.isPrimaryKey()) {
+                for (final String columnName : columnNames) {
+                    keys.put(columnName, "PRI");
+                }
+            } else if (!index.isNonUnique() && columnNames.size() == 1) {
+                putKey(keys, columnNames.get(0), "UNI");
+            } else {
+                putKey(keys, columnNames.get(0), "MUL");
+            }
+        }
+        final List<Column> keyed = new ArrayList<>(columns.size());
+        for (final Column column : columns) {
+            String key = keys.get(column.getColumnName());
+            if (key == null) {
+                key = "";
+            }
+            if (key.equals(column.getKey())) {
+                keyed.add(column);
+            } else {
+                keyed.add(new Column(column.getColumnName(), column.getType(), column.isNullable(), key,
+                        column.getDefaultValue(), column.getExtra(), column.getCollation(), column.getComment(),
+                        column.getGenerationExpression()));
+            }
+        }
+        return keyed;
+    }
+
+    private static void putKey(final Map<String, String> keys, final String columnName, final String key) {
+        //PRI takes priority over UNI, which takes priority over MUL
+        final String existing = keys.get(columnName);
+        if (existing == null || (existing.equals("MUL") && key.equals("UNI"))) {
+            keys.put(columnName, key);
+        }
+    }
+
+    private Table mutateTable(final Table table) {
+        final String tableName = table.getTableName();
+        final List<Column> columns = new ArrayList<>(table.getColumns());
+        final List<Index> indexes = new ArrayList<>(table.getIndexes());
+        switch (random.nextInt(MUTATION_KINDS)) {
+            case 0:
+                //Change a column's type
+                if (columns.size() > 1) {
+                    final int i = 1 + random.nextInt(columns.size() - 1);
+                    final Column changed = generateColumn(columns.get(i).getColumnName());
+                    columns.set(i, changed);
+                    if (isIndexable(changed)) {
+                        reindex(indexes, changed);
+                    } else {
+                        removeIndexes(indexes, changed.getColumnName());
+                    }
+                }
+                break;
+            case 1:
+                //Add a column
+                int added = columns.size();
+                while (table.getColumn("added_" + added) != null) {
+                    added++;
+                }
+                columns.add(1 + random.nextInt(columns.size()), generateColumn("added_" + added));
+                break;
+            case 2:
+                //Drop a column
+                if (columns.size() > 2) {
+                    final Column dropped = columns.remove(1 + random.nextInt(columns.size() - 1));
+                    removeIndexes(indexes, dropped.getColumnName());
+                }
+                break;
+            case 3:
+                //Add a key
+                final Index index = generateIndex(tableName, "added_key_" + indexes.size(), columns);
+                if (index != null && table.getIndex(index.getKeyName()) == null) {
+                    indexes.add(index);
+                }
+                break;
+            default:
+                //Drop a key
+                if (indexes.size() > 1) {
+                    indexes.remove(1 + random.nextInt(indexes.size() - 1));
+                }
+                break;
+        }
+        return new Table(tableName, withKeys(columns, indexes), indexes, table.getOptions());
+    }
+
+    /**
+     * Updates the prefix length of the given column in the keys using it, after its type has changed.
+     */
+    private static void reindex(final List<Index> indexes, final Column column) {
+        for (int i = 1; i < indexes.size(); i++) {
+            final Index index = indexes.get(i);
+            final int position = index.getColumnNames().indexOf(column.getColumnName());
+            if (position >= 0) {
+                final List<Integer> subParts = new ArrayList<>(index.getSubParts());
+                subParts.set(position, getSubPart(column));
+                indexes.set(i, new Index(index.getTableName(), index.isNonUnique(), index.getKeyName(),
+                        index.getColumnNames(), subParts, index.getIndexType()));
+            }
+        }
+    }
+
+    private static void removeIndexes(final List<Index> indexes, final String columnName) {
+        for (int i = indexes.size() - 1; i > 0; i--) {
+            if (indexes.get(i).getColumnNames().contains(columnName)) {
+                indexes.remove(i);
+            }
+        }
+    }
+}
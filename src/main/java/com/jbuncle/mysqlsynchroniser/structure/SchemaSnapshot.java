@@ -0,0 +1,300 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKey;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.TableOptions;
+import com.jbuncle.mysqlsynchroniser.structure.objects.View;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saves and loads a Database structure to and from a compact binary
+ * snapshot, so a source schema can be loaded once and diffed against many
+ * targets.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SchemaSnapshot {
+
+    private static final int MAGIC = 0x4D595353;
+    private static final int VERSION = 4;
+
+    //Limits on what a snapshot can claim, so a corrupt one fails rather than exhausting memory
+    private static final int MAX_STRING_BYTES = 1 << 24;
+    private static final int MAX_COUNT = 1 << 20;
+
+    public static void save(final Database database, final File file) throws IOException {
+        try (final OutputStream out = new FileOutputStream(file)) {
+            write(database, out);
+        }
+    }
+
+    public static Database load(final File file) throws IOException {
+        try (final InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Writes the database to the given stream, leaving the stream open.
+     *
+     * @param database the database to write
+     * @param out the stream to write to
+     * @throws IOException
+     */
+    public static void write(final Database database, final OutputStream out) throws IOException {
+        final GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(out));
+        final DataOutputStream data = new DataOutputStream(gzip);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+
+        data.writeInt(database.getTables().size());
+        for (final Table table : database.getTables().values()) {
+            writeTable(data, table);
+        }
+        data.writeInt(database.getViews().size());
+        for (final View view : database.getViews().values()) {
+            writeString(data, view.getViewName());
+            writeString(data, view.getCreateStatement());
+        }
+        data.flush();
+        gzip.finish();
+        gzip.flush();
+    }
+
+    /**
+     * Reads a database from the given stream.
+     *
+     * @param in the stream to read from
+     * @return the database
+     * @throws IOException if the stream isn't a snapshot or can't be read
+     */
+    public static Database read(final InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(new GZIPInputStream(new BufferedInputStream(in)));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a schema snapshot");
+        }
+        final int version = data.readInt();
+        //Earlier formats lack the index prefixes, table options and foreign keys, so would diff as changes
+        if (version != VERSION) {
+            throw new IOException("Unsupported schema snapshot version " + version);
+        }
+
+        final int tableCount = readCount(data);
+        final Map<String, Table> tables = new HashMap<>();
+        for (int i = 0; i < tableCount; i++) {
+            final Table table = readTable(data);
+            tables.put(table.getTableName(), table);
+        }
+        final int viewCount = readCount(data);
+        final Map<String, View> views = new HashMap<>();
+        for (int i = 0; i < viewCount; i++) {
+            final String viewName = readString(data);
+            views.put(viewName, new View(viewName, readString(data)));
+        }
+        return new Database(tables, views);
+    }
+
+    private static void writeTable(final DataOutputStream data, final Table table) throws IOException {
+        writeString(data, table.getTableName());
+        data.writeInt(table.getColumns().size());
+        for (final Column column : table.getColumns()) {
+            writeString(data, column.getColumnName());
+            writeString(data, column.getType());
+            data.writeBoolean(column.isNullable());
+            writeString(data, column.getKey());
+            writeString(data, column.getDefaultValue());
+            writeString(data, column.getExtra());
+            writeString(data, column.getCollation());
+            writeString(data, column.getComment());
+            writeString(data, column.getGenerationExpression());
+        }
+        data.writeInt(table.getIndexes().size());
+        for (final Index index : table.getIndexes()) {
+            writeString(data, index.getKeyName());
+            data.writeBoolean(index.isNonUnique());
+            data.writeInt(index.getColumnNames().size());
+            for (final String columnName : index.getColumnNames()) {
+                writeString(data, columnName);
+            }
+            for (final Integer subPart : index.getSubParts()) {
+                data.writeInt(subPart == null ? -1 : subPart);
+            }
+            writeString(data, index.getIndexType());
+        }
+        writeOptions(data, table.getOptions());
+        data.writeInt(table.getForeignKeys().size());
+        for (final ForeignKey foreignKey : table.getForeignKeys()) {
+            writeString(data, foreignKey.getConstraintName());
+            writeStrings(data, foreignKey.getColumnNames());
+            writeString(data, foreignKey.getReferencedSchema());
+            writeString(data, foreignKey.getReferencedTable());
+            writeStrings(data, foreignKey.getReferencedColumnNames());
+            writeString(data, foreignKey.getUpdateRule());
+            writeString(data, foreignKey.getDeleteRule());
+        }
+    }
+
+    private static void writeOptions(final DataOutputStream data, final TableOptions options) throws IOException {
+        data.writeBoolean(options != null);
+        if (options != null) {
+            writeString(data, options.getEngine());
+            writeString(data, options.getCollation());
+            writeString(data, options.getRowFormat());
+            data.writeBoolean(options.getAutoIncrement() != null);
+            if (options.getAutoIncrement() != null) {
+                data.writeLong(options.getAutoIncrement());
+            }
+            writeString(data, options.getComment());
+        }
+    }
+
+    private static TableOptions readOptions(final DataInputStream data) throws IOException {
+        if (!data.readBoolean()) {
+            return null;
+        }
+        final String engine = readString(data);
+        final String collation = readString(data);
+        final String rowFormat = readString(data);
+        final Long autoIncrement = data.readBoolean() ? data.readLong() : null;
+        return new TableOptions(engine, collation, rowFormat, autoIncrement, readString(data));
+    }
+
+    private static Table readTable(final DataInputStream data) throws IOException {
+        final SymbolTable symbols = SymbolTable.getShared();
+        final String tableName = readString(data);
+        final int columnCount = readCount(data);
+        final List<Column> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(new Column(
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data)),
+                    data.readBoolean(),
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data))));
+        }
+        final int indexCount = readCount(data);
+        final List<Index> indexes = new ArrayList<>(indexCount);
+        for (int i = 0; i < indexCount; i++) {
+            final String keyName = symbols.intern(readString(data));
+            final boolean nonUnique = data.readBoolean();
+            final int indexColumnCount = readCount(data);
+            final List<String> columnNames = new ArrayList<>(indexColumnCount);
+            for (int j = 0; j < indexColumnCount; j++) {
+                columnNames.add(symbols.intern(readString(data)));
+            }
+            final List<Integer> subParts = new ArrayList<>(indexColumnCount);
+            for (int j = 0; j < indexColumnCount; j++) {
+                final int subPart = data.readInt();
+                subParts.add(subPart < 0 ? null : subPart);
+            }
+            indexes.add(new Index(tableName, nonUnique, keyName, columnNames, subParts, readString(data)));
+        }
+        final TableOptions options = readOptions(data);
+        final int foreignKeyCount = readCount(data);
+        final List<ForeignKey> foreignKeys = new ArrayList<>(foreignKeyCount);
+        for (int i = 0; i < foreignKeyCount; i++) {
+            foreignKeys.add(new ForeignKey(
+                    symbols.intern(readString(data)),
+                    readStrings(data, symbols),
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data)),
+                    readStrings(data, symbols),
+                    symbols.intern(readString(data)),
+                    symbols.intern(readString(data))));
+        }
+        return new Table(tableName, columns, indexes, options, foreignKeys);
+    }
+
+    private static void writeStrings(final DataOutputStream data, final List<String> strs) throws IOException {
+        data.writeInt(strs.size());
+        for (final String str : strs) {
+            writeString(data, str);
+        }
+    }
+
+    private static List<String> readStrings(final DataInputStream data, final SymbolTable symbols) throws IOException {
+        final int count = readCount(data);
+        final List<String> strs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strs.add(symbols.intern(readString(data)));
+        }
+        return strs;
+    }
+
+    private static void writeString(final DataOutputStream data, final String str) throws IOException {
+        if (str == null) {
+            data.writeInt(-1);
+        } else {
+            final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+    }
+
+    private static int readCount(final DataInputStream data) throws IOException {
+        final int count = data.readInt();
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("Invalid count " + count + " in schema snapshot");
+        }
+        return count;
+    }
+
+    private static String readString(final DataInputStream data) throws IOException {
+        final int length = data.readInt();
+        if (length == -1) {
+            return null;
+        } else if (length < -1 || length > MAX_STRING_BYTES) {
+            throw new IOException("Invalid string length " + length + " in schema snapshot");
+        }
+        final byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
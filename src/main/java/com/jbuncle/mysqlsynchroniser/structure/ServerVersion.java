@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+/**
+ * A MySQL or MariaDB server version, as reported by <code>VERSION()</code>.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class ServerVersion {
+
+    private final int major;
+    private final int minor;
+    private final int patch;
+    private final boolean mariaDB;
+
+    public ServerVersion(final int major, final int minor, final int patch, final boolean mariaDB) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.mariaDB = mariaDB;
+    }
+
+    /**
+     * Parses a version string such as <code>5.7.30-log</code> or
+     * <code>10.4.12-MariaDB</code>.
+     *
+     * @param version the version string
+     * @return the parsed version
+     */
+    public static ServerVersion parse(final String version) {
+        final int[] parts = new int[3];
+        int part = 0;
+        int i = 0;
+        while (i < version.length() && part < parts.length) {
+            final char c = version.charAt(i);
+            if (Character.isDigit(c)) {
+                parts[part] = parts[part] * 10 + (c - '0');
+            } else if (c == '.') {
+                part++;
+            } else {
+                break;
+            }
+            i++;
+        }
+        return new ServerVersion(parts[0], parts[1], parts[2], version.contains("MariaDB"));
+    }
+
+    public boolean isAtLeast(final int major, final int minor, final int patch) {
+        if (this.major != major) {
+            return this.major > major;
+        }
+        if (this.minor != minor) {
+            return this.minor > minor;
+        }
+        return this.patch >= patch;
+    }
+
+    /**
+     * Gets whether INFORMATION_SCHEMA.COLUMNS has GENERATION_EXPRESSION, as on MySQL 5.7.6 and MariaDB 10.2.5 and
+     * later.
+     *
+     * @return true if generation expressions can be queried
+     */
+    public boolean hasGenerationExpressions() {
+        return mariaDB ? isAtLeast(10, 2, 5) : isAtLeast(5, 7, 6);
+    }
+
+    public boolean isMariaDB() {
+        return mariaDB;
+    }
+
+    public int getMajor() {
+        return major;
+    }
+
+    public int getMinor() {
+        return minor;
+    }
+
+    public int getPatch() {
+        return patch;
+    }
+
+    @Override
+    public String toString() {
+        return major + "." + minor + "." + patch + (mariaDB ? "-MariaDB" : "");
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalises the strings in loaded schema metadata, so that repeated values (column types, collations,
+ * extras, comments, column and key names) share one instance rather than each column holding its own copy.
+ *
+ * The table is bounded: once it holds the maximum number of symbols it's emptied and starts again, so a
+ * long-running process loading many schemas doesn't hold on to every distinct value it has seen. Strings
+ * already handed out are unaffected, later equal strings just aren't shared with them.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SymbolTable {
+
+    /**
+     * The default maximum number of symbols, far more than the distinct values of a typical schema.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+    private static final SymbolTable SHARED = new SymbolTable();
+
+    private final ConcurrentMap<String, String> symbols;
+    private final int maxSize;
+
+    public SymbolTable() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     *
+     * @param maxSize the number of symbols held before the table is emptied
+     */
+    public SymbolTable(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1");
+        }
+        this.symbols = new ConcurrentHashMap<>();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the symbol table shared by the loaders, so that schemas loaded from different databases share their
+     * strings too.
+     *
+     * @return the shared symbol table
+     */
+    public static SymbolTable getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the canonical instance of the given string.
+     *
+     * @param str the string, may be null
+     * @return the canonical instance equal to the string, or null
+     */
+    public String intern(final String str) {
+        if (str == null) {
+            return null;
+        }
+        final String existing = this.symbols.get(str);
+        if (existing != null) {
+            return existing;
+        }
+        if (this.symbols.size() >= this.maxSize) {
+            this.symbols.clear();
+        }
+        final String raced = this.symbols.putIfAbsent(str, str);
+        return raced == null ? str : raced;
+    }
+
+    /**
+     * Gets the number of distinct strings held.
+     *
+     * @return the number of symbols
+     */
+    public int size() {
+        return this.symbols.size();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.diff;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Statement sink which writes each statement, on its own line, to an {@link Appendable} such as a Writer, so a
+ * script can be written as it's generated rather than held in memory.
+ *
+ * As {@link StatementSink#append(java.lang.String)} can't throw, like {@link java.io.PrintWriter} the first
+ * IOException is kept and later statements are dropped. It's thrown by {@link #flush()} and {@link #close()}, or
+ * can be checked with {@link #getError()}.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class AppendableStatementSink implements StatementSink, Flushable, Closeable {
+
+    private final Appendable out;
+    private IOException error;
+
+    public AppendableStatementSink(final Appendable out) {
+        this.out = out;
+        this.error = null;
+    }
+
+    /**
+     * Opens a buffered UTF-8 sink to the given file, replacing its contents.
+     *
+     * @param file the script file
+     * @return the sink, which must be closed
+     * @throws IOException if the file can't be opened
+     */
+    public static AppendableStatementSink open(final Path file) throws IOException {
+        return new AppendableStatementSink(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void append(final String statement) {
+        if (this.error != null) {
+            return;
+        }
+        try {
+            this.out.append(statement).append('\n');
+        } catch (IOException ex) {
+            this.error = ex;
+        }
+    }
+
+    /**
+     * Gets the first error writing a statement.
+     *
+     * @return the error, or null if all statements have been written
+     */
+    public IOException getError() {
+        return this.error;
+    }
+
+    private void throwError() throws IOException {
+        if (this.error != null) {
+            throw new IOException("Failed to write statement", this.error);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        throwError();
+        if (this.out instanceof Flushable) {
+            ((Flushable) this.out).flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            throwError();
+        } finally {
+            if (this.out instanceof Closeable) {
+                ((Closeable) this.out).close();
+            }
+        }
+    }
+}
@@ -23,13 +23,20 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.diff;
 
+import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.connection.SessionConnectionStrategy;
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.OnlineDdl;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
 import com.jbuncle.mysqlsynchroniser.structure.objects.View;
+import com.jbuncle.mysqlsynchroniser.util.FutureUtils;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import javax.sql.DataSource;
 
 /**
@@ -40,10 +47,34 @@ public class DatabaseDiff {
 
     private final Database source;
     private final Database target;
+    private boolean combineAlterStatements;
+    private OnlineDdl onlineDdl;
 
     public DatabaseDiff(final Database source, final Database target) {
         this.source = source;
         this.target = target;
+        this.combineAlterStatements = false;
+        this.onlineDdl = null;
+    }
+
+    /**
+     * Sets whether each table's changes are made in a single ALTER TABLE statement, so the table is only rebuilt
+     * once, rather than an ALTER TABLE statement per change.
+     *
+     * @param combineAlterStatements true to combine changes per table
+     */
+    public void setCombineAlterStatements(final boolean combineAlterStatements) {
+        this.combineAlterStatements = combineAlterStatements;
+    }
+
+    /**
+     * Sets the algorithm selection used to add ALGORITHM and LOCK clauses to ALTER TABLE statements, e.g.
+     * <code>new OnlineDdl(new MySQL(target).loadServerVersion())</code>.
+     *
+     * @param onlineDdl the algorithm selection for the target server, or null for no clauses
+     */
+    public void setOnlineDdl(final OnlineDdl onlineDdl) {
+        this.onlineDdl = onlineDdl;
     }
 
     private Database getSource() {
@@ -54,35 +85,53 @@ public class DatabaseDiff {
         return target;
     }
 
-    private List<String> getTableUpdates(final DataSource sourceConnection) throws SQLException {
+    private void appendTableUpdates(
+            final ConnectionStrategy sourceConnection,
+            final ExecutorService executor,
+            final StatementSink sink)
+            throws SQLException {
 
-        final List<String> updates = new LinkedList<>();
         final Map<String, Table> targetTables = this.getTarget().getTables();
         final Map<String, Table> tables = this.getSource().getTables();
 
         //Iterate source tables
+        final List<TableUpdatesTask> tasks = new ArrayList<>(tables.size());
         for (final Map.Entry<String, Table> sourceEntry : tables.entrySet()) {
-            if (targetTables.containsKey(sourceEntry.getKey())) {
-                //Has table, compare and update if necessary
-                updates.addAll(TableDiff.diff(sourceEntry.getValue(), targetTables.get(sourceEntry.getKey())));
-            } else {
-                TableStatementBuilder tableStatementBuilder = new TableStatementBuilder(tables.get(sourceEntry.getKey()));
-                //Target is missing table, get updates
-                updates.add(tableStatementBuilder.getCreateStatement(sourceConnection));
+            //Target table is null if it's missing
+            tasks.add(new TableUpdatesTask(
+                    sourceEntry.getValue(),
+                    targetTables.remove(sourceEntry.getKey()),
+                    sourceConnection));
+        }
+        if (executor == null) {
+            for (final TableUpdatesTask task : tasks) {
+                task.appendTo(sink);
+            }
+        } else {
+            final List<Future<StatementList>> futures = new ArrayList<>(tasks.size());
+            try {
+                for (final TableUpdatesTask task : tasks) {
+                    futures.add(executor.submit(task));
+                }
+                //Collect in submission order so output matches the sequential diff
+                for (final Future<StatementList> future : futures) {
+                    FutureUtils.get(future).appendTo(sink);
+                }
+            } finally {
+                for (final Future<StatementList> future : futures) {
+                    future.cancel(true);
+                }
             }
-            targetTables.remove(sourceEntry.getKey());
         }
         //Iterate remaining target tables for deletes
         for (final Table targetTable : targetTables.values()) {
             TableStatementBuilder tableStatementBuilder = new TableStatementBuilder(targetTable);
-            updates.add(tableStatementBuilder.getDropStatement());
+            sink.append(tableStatementBuilder.getDropStatement());
         }
-        return updates;
     }
 
-    private List<String> getViewUpdates() throws SQLException {
+    private void appendViewUpdates(final StatementSink sink) {
 
-        final List<String> updates = new LinkedList<>();
         final Map<String, View> targetViews = this.getTarget().getViews();
         final Map<String, View> sourceViews = this.getSource().getViews();
 
@@ -91,24 +140,116 @@ public class DatabaseDiff {
             if (targetViews.containsKey(sourceEntry.getKey())) {
                 ViewDiff diff = new ViewDiff(sourceEntry.getValue(), targetViews.get(sourceEntry.getKey()));
                 //Has table, compare and update if necessary
-                updates.addAll(diff.diff());
+                diff.diff(sink);
             } else {
                 //Target is missing table, get updates
-                updates.add(sourceEntry.getValue().getCreateStatement());
+                sink.append(sourceEntry.getValue().getCreateStatement());
             }
             targetViews.remove(sourceEntry.getKey());
         }
         //Iterate remaining target tables for deletes
         for (final View targetTable : targetViews.values()) {
-            updates.add(targetTable.getDropStatement());
+            sink.append(targetTable.getDropStatement());
+        }
+    }
+
+    /**
+     * Generates the statements to update the target database to the source database purely from the loaded
+     * models, without connecting to either database. Missing tables are created from the table model rather than
+     * the source's SHOW CREATE TABLE.
+     *
+     * @return the update statements
+     */
+    public List<String> diff() {
+        try {
+            return diff(null, null);
+        } catch (SQLException ex) {
+            //Only thrown when connecting to the source
+            throw new IllegalStateException(ex);
         }
-        return updates;
     }
 
     public List<String> diff(final DataSource sourceConnection) throws SQLException {
-        final List<String> list = new LinkedList<>();
-        list.addAll(getTableUpdates(sourceConnection));
-        list.addAll(getViewUpdates());
+        return diff(sourceConnection, null);
+    }
+
+    /**
+     * Generates the statements to update the target database to the source database, diffing tables in parallel on
+     * the given executor. The statements are in the same order as the sequential diff.
+     *
+     * @param sourceConnection the source datasource, used to create tables missing from the target (or null to
+     * create them from the table model)
+     * @param executor the executor to diff tables on, or null to diff them on the calling thread
+     * @return the update statements
+     * @throws SQLException
+     */
+    public List<String> diff(final DataSource sourceConnection, final ExecutorService executor) throws SQLException {
+        final StatementList list = new StatementList();
+        diff(sourceConnection, executor, list);
         return list;
     }
+
+    /**
+     * Appends the statements to update the target database to the source database to the given sink, in the same
+     * order as {@link #diff(javax.sql.DataSource, java.util.concurrent.ExecutorService)} returns them. Each table's
+     * statements are appended as soon as it's diffed, so they can be written out before the whole diff is done.
+     *
+     * @param sourceConnection the source datasource, used to create tables missing from the target (or null to
+     * create them from the table model)
+     * @param executor the executor to diff tables on, or null to diff them on the calling thread
+     * @param sink the sink to append the update statements to
+     * @throws SQLException
+     */
+    public void diff(
+            final DataSource sourceConnection,
+            final ExecutorService executor,
+            final StatementSink sink)
+            throws SQLException {
+        //Share one source connection between all missing tables (only opened if a table is missing)
+        try (final SessionConnectionStrategy sourceSession = sourceConnection == null
+                ? null
+                : new SessionConnectionStrategy(sourceConnection)) {
+            appendTableUpdates(sourceSession, executor, sink);
+        }
+        appendViewUpdates(sink);
+    }
+
+    private class TableUpdatesTask implements Callable<StatementList> {
+
+        private final Table sourceTable;
+        private final Table targetTable;
+        private final ConnectionStrategy sourceConnection;
+
+        public TableUpdatesTask(
+                final Table sourceTable,
+                final Table targetTable,
+                final ConnectionStrategy sourceConnection) {
+            this.sourceTable = sourceTable;
+            this.targetTable = targetTable;
+            this.sourceConnection = sourceConnection;
+        }
+
+        @Override
+        public StatementList call() throws SQLException {
+            final StatementList updates = new StatementList();
+            appendTo(updates);
+            return updates;
+        }
+
+        public void appendTo(final StatementSink sink) throws SQLException {
+            if (targetTable != null) {
+                //Has table, compare and update if necessary
+                TableDiff.diff(sourceTable, targetTable, combineAlterStatements, onlineDdl, sink);
+            } else {
+                TableStatementBuilder tableStatementBuilder = new TableStatementBuilder(sourceTable);
+                //Target is missing table, get updates
+                if (sourceConnection == null) {
+                    sink.append(tableStatementBuilder.getCreateStatement());
+                } else {
+                    sink.append(tableStatementBuilder.getCreateStatement(sourceConnection));
+                }
+            }
+        }
+
+    }
 }
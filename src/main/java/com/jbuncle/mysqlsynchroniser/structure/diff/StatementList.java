@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.diff;
+
+import java.util.ArrayList;
+
+/**
+ * Statement sink which collects the statements in memory.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class StatementList extends ArrayList<String> implements StatementSink {
+
+    private static final long serialVersionUID = 1L;
+
+    public StatementList() {
+        super();
+    }
+
+    public StatementList(final int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    @Override
+    public void append(final String statement) {
+        this.add(statement);
+    }
+
+    /**
+     * Appends all collected statements to another sink.
+     *
+     * @param sink the sink to append to
+     */
+    public void appendTo(final StatementSink sink) {
+        for (final String statement : this) {
+            sink.append(statement);
+        }
+    }
+}
@@ -23,13 +23,15 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.diff;
 
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.AlterSpecification;
 import com.jbuncle.mysqlsynchroniser.structure.diff.builder.ColumnStatementStrategy;
 import com.jbuncle.mysqlsynchroniser.structure.diff.builder.IndexStatementStrategy;
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.OnlineDdl;
 import com.jbuncle.mysqlsynchroniser.structure.diff.builder.DiffBuilder;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -39,24 +41,116 @@ import java.util.List;
 public class TableDiff {
 
     public static List<String> diff(final Table source, final Table target) {
-        final List<String> updates = new LinkedList<>();
-        updates.addAll(getColumnDiff(source, target));
-        updates.addAll(getIndexDiff(source, target));
+        return diff(source, target, false);
+    }
+
+    /**
+     * Generates the statements to update the target table to match the source table.
+     *
+     * @param source the table to update to
+     * @param target the table to update
+     * @param combineAlterStatements true to make all changes in a single ALTER TABLE statement (so the table is
+     * only rebuilt once), false for an ALTER TABLE statement per change
+     * @return the update statements
+     */
+    public static List<String> diff(final Table source, final Table target, final boolean combineAlterStatements) {
+        return diff(source, target, combineAlterStatements, null);
+    }
+
+    /**
+     * Generates the statements to update the target table to match the source table, with ALGORITHM and LOCK
+     * clauses for the cheapest way the target server can make each change.
+     *
+     * @param source the table to update to
+     * @param target the table to update
+     * @param combineAlterStatements true to make all changes in a single ALTER TABLE statement (so the table is
+     * only rebuilt once), false for an ALTER TABLE statement per change
+     * @param onlineDdl the algorithm selection for the target server, or null to leave the choice to the server
+     * @return the update statements
+     */
+    public static List<String> diff(
+            final Table source,
+            final Table target,
+            final boolean combineAlterStatements,
+            final OnlineDdl onlineDdl) {
+        final StatementList updates = new StatementList();
+        diff(source, target, combineAlterStatements, onlineDdl, updates);
         return updates;
     }
 
-    private static List<String> getColumnDiff(final Table source, final Table target) {
-        final DiffBuilder<Column> diffBuilder = new DiffBuilder<>(new ColumnStatementStrategy(source.getTableName()));
+    /**
+     * Appends the statements to update the target table to match the source table to the given sink.
+     *
+     * @param source the table to update to
+     * @param target the table to update
+     * @param combineAlterStatements true to make all changes in a single ALTER TABLE statement (so the table is
+     * only rebuilt once), false for an ALTER TABLE statement per change
+     * @param onlineDdl the algorithm selection for the target server, or null to leave the choice to the server
+     * @param sink the sink to append the update statements to
+     */
+    public static void diff(
+            final Table source,
+            final Table target,
+            final boolean combineAlterStatements,
+            final OnlineDdl onlineDdl,
+            final StatementSink sink) {
+        //Most tables are unchanged, so the list is usually left empty
+        final List<AlterSpecification> specifications = new ArrayList<>();
+        appendColumnDiff(source, target, specifications);
+        appendIndexDiff(source, target, specifications);
+
+        if (specifications.isEmpty()) {
+            return;
+        }
+        final String alterTable = "ALTER TABLE `" + source.getTableName() + "` ";
+        if (combineAlterStatements) {
+            final StringBuilder sb = new StringBuilder(alterTable);
+            for (final AlterSpecification specification : specifications) {
+                sb.append(specification.getClause()).append(", ");
+            }
+            final String clauses = isOnline(onlineDdl) ? onlineDdl.getAlgorithm(specifications).getClauses() : "";
+            if (clauses.isEmpty()) {
+                sb.setLength(sb.length() - 2);
+            } else {
+                sb.append(clauses);
+            }
+            sink.append(sb.append(';').toString());
+        } else {
+            for (final AlterSpecification specification : specifications) {
+                final String clauses = isOnline(onlineDdl)
+                        ? onlineDdl.getAlgorithm(specification.getChangeType()).getClauses()
+                        : "";
+                if (clauses.isEmpty()) {
+                    sink.append(alterTable + specification.getClause() + ";");
+                } else {
+                    sink.append(alterTable + specification.getClause() + ", " + clauses + ";");
+                }
+            }
+        }
+    }
+
+    private static boolean isOnline(final OnlineDdl onlineDdl) {
+        return onlineDdl != null && onlineDdl.isSupported();
+    }
+
+    private static void appendColumnDiff(
+            final Table source,
+            final Table target,
+            final List<AlterSpecification> specifications) {
+        final DiffBuilder<Column> diffBuilder = new DiffBuilder<>(new ColumnStatementStrategy(source, target));
         diffBuilder.addAllTo(source.getColumns());
         diffBuilder.addAllFrom(target.getColumns());
-        return diffBuilder.generateStatements();
+        diffBuilder.generateStatements(specifications);
     }
 
-    private static List<String> getIndexDiff(final Table source, final Table target) {
+    private static void appendIndexDiff(
+            final Table source,
+            final Table target,
+            final List<AlterSpecification> specifications) {
         final DiffBuilder<Index> builder = new DiffBuilder<>(new IndexStatementStrategy());
         builder.addAllTo(source.getIndexes());
         builder.addAllFrom(target.getIndexes());
-        return builder.generateStatements();
+        builder.generateStatements(specifications);
     }
 
 }
@@ -23,13 +23,19 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.diff;
 
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.ColumnStatementStrategy;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKey;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.TableOptions;
+import com.jbuncle.mysqlsynchroniser.util.ListUtils;
 import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
 import com.jbuncle.mysqlsynchroniser.connection.RowMapper;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
-import javax.sql.DataSource;
 
 /**
  *
@@ -47,12 +53,75 @@ class TableStatementBuilder {
         return "DROP TABLE " + baseTable.getTableName() + ";";
     }
 
-    public String getCreateStatement(DataSource conn) throws SQLException {
-        return getCreateStatement(conn, this.baseTable.getTableName());
+    /**
+     * Builds the CREATE TABLE statement from the table model, without
+     * connecting to the source.
+     *
+     * Table options are only included if they were loaded with the table. The
+     * AUTO_INCREMENT counter is left out, as the new table starts empty.
+     *
+     * @return the create statement
+     */
+    public String getCreateStatement() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("CREATE TABLE `").append(baseTable.getTableName()).append("` (\n");
+        final List<String> definitions = new ArrayList<>();
+        for (final Column column : baseTable.getColumns()) {
+            definitions.add("  `" + column.getColumnName() + "` " + ColumnStatementStrategy.getColumnDefinition(column));
+        }
+        //Primary key first, as MySQL would
+        for (final Index index : baseTable.getIndexes()) {
+            if (index.isPrimaryKey()) {
+                definitions.add("  " + index.getDefinition());
+            }
+        }
+        for (final Index index : baseTable.getIndexes()) {
+            if (!index.isPrimaryKey()) {
+                definitions.add("  " + index.getDefinition());
+            }
+        }
+        for (final ForeignKey foreignKey : baseTable.getForeignKeys()) {
+            definitions.add("  " + foreignKey.getDefinition());
+        }
+        sb.append(ListUtils.implode(",\n", definitions)).append("\n)");
+
+        final TableOptions options = baseTable.getOptions();
+        if (options != null) {
+            if (options.getEngine() != null) {
+                sb.append(" ENGINE=").append(options.getEngine());
+            }
+            if (options.getCollation() != null) {
+                sb.append(" DEFAULT CHARSET=").append(options.getCharacterSet());
+                sb.append(" COLLATE=").append(options.getCollation());
+            }
+            if (options.getRowFormat() != null) {
+                sb.append(" ROW_FORMAT=").append(options.getRowFormat());
+            }
+            if (options.getComment() != null && !options.getComment().isEmpty()) {
+                sb.append(" COMMENT=").append(ColumnStatementStrategy.quote(options.getComment()));
+            }
+        }
+        return sb.append(";").toString();
+    }
+
+    /**
+     * Gets the CREATE TABLE statement from the source, so that a
+     * {@link com.jbuncle.mysqlsynchroniser.connection.SessionConnectionStrategy}
+     * can be reused for every missing table.
+     *
+     * @param connectionStrategy the source connection
+     * @return the create statement
+     * @throws SQLException
+     */
+    public String getCreateStatement(ConnectionStrategy connectionStrategy) throws SQLException {
+        if (connectionStrategy == null) {
+            throw new SQLException("No source connection to create table '" + this.baseTable.getTableName() + "' from");
+        }
+        return getCreateStatement(connectionStrategy, this.baseTable.getTableName());
     }
 
-    private static String getCreateStatement(final DataSource conn, final String table) throws SQLException {
-        final List<String> results = new ConnectionStrategy(conn).query("SHOW CREATE TABLE " + table + ";", new RowMapper<String>() {
+    private static String getCreateStatement(final ConnectionStrategy connectionStrategy, final String table) throws SQLException {
+        final List<String> results = connectionStrategy.query("SHOW CREATE TABLE " + table + ";", new RowMapper<String>() {
             @Override
             public String rowToObject(ResultSet rs) throws SQLException {
                 return rs.getString("Create Table");
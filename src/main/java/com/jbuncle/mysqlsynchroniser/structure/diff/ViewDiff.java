@@ -24,7 +24,6 @@
 package com.jbuncle.mysqlsynchroniser.structure.diff;
 
 import com.jbuncle.mysqlsynchroniser.structure.objects.View;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -42,11 +41,15 @@ public class ViewDiff {
     }
 
     public List<String> diff() {
-        List<String> updates = new LinkedList<>();
+        final StatementList updates = new StatementList(2);
+        diff(updates);
+        return updates;
+    }
+
+    public void diff(final StatementSink sink) {
         if (!source.equals(target)) {
-            updates.add(this.source.getDropStatement());
-            updates.add(this.source.getCreateStatement());
+            sink.append(this.source.getDropStatement());
+            sink.append(this.source.getCreateStatement());
         }
-        return updates;
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.diff.builder;
+
+/**
+ * A single alteration within an ALTER TABLE statement, e.g.
+ * <code>ADD INDEX `name` (`column`)</code>.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class AlterSpecification {
+
+    /**
+     * The kind of change an alteration makes, which decides how cheaply the
+     * server can apply it.
+     */
+    public enum ChangeType {
+        /**
+         * Adds a column after the existing columns.
+         */
+        APPEND_COLUMN,
+        /**
+         * Adds a column between existing columns.
+         */
+        ADD_COLUMN,
+        DROP_COLUMN,
+        /**
+         * Changes only a column's default or comment.
+         */
+        ALTER_COLUMN_METADATA,
+        /**
+         * Widens a VARCHAR column without changing the number of bytes its length takes, and may also make it NULL.
+         */
+        EXTEND_VARCHAR,
+        /**
+         * Makes a NOT NULL column NULL, without changing its type.
+         */
+        MAKE_NULLABLE,
+        /**
+         * Changes a column's type, nullability, collation or attributes in any other way.
+         */
+        MODIFY_COLUMN,
+        ADD_INDEX,
+        /**
+         * Adds a FULLTEXT or SPATIAL index, which can be built in place but blocks writes.
+         */
+        ADD_FULLTEXT_INDEX,
+        DROP_INDEX,
+        ADD_PRIMARY_KEY,
+        DROP_PRIMARY_KEY
+    }
+
+    private final ChangeType changeType;
+    private final String clause;
+
+    public AlterSpecification(final ChangeType changeType, final String clause) {
+        this.changeType = changeType;
+        this.clause = clause;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getClause() {
+        return clause;
+    }
+
+    @Override
+    public String toString() {
+        return clause;
+    }
+
+}
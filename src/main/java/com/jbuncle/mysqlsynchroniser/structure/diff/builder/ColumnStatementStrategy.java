@@ -23,9 +23,16 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.diff.builder;
 
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.AlterSpecification.ChangeType;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
-import com.jbuncle.mysqlsynchroniser.util.ListUtils;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ColumnType;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  *
@@ -34,18 +41,72 @@ import java.util.List;
 public class ColumnStatementStrategy implements StatementStrategy<Column> {
 
     private final String tableName;
+    private final Set<String> appendedColumns;
     private String lastColumn;
 
     public ColumnStatementStrategy(final String tableName) {
+        this(tableName, Collections.<String>emptySet());
+    }
+
+    /**
+     * Creates a strategy for updating the target table to the source table,
+     * which knows which new columns are simply appended to the end of the
+     * table.
+     *
+     * @param source the table to update to
+     * @param target the table to update
+     */
+    public ColumnStatementStrategy(final Table source, final Table target) {
+        this(source.getTableName(), getAppendedColumns(source, target));
+    }
+
+    private ColumnStatementStrategy(final String tableName, final Set<String> appendedColumns) {
         this.tableName = tableName;
+        this.appendedColumns = appendedColumns;
+    }
+
+    /**
+     * Gets the new columns that end up after all of the target's existing
+     * columns, which can be added without a position.
+     */
+    private static Set<String> getAppendedColumns(final Table source, final Table target) {
+        for (final Column column : target.getColumns()) {
+            if (source.getColumn(column.getColumnName()) == null) {
+                //Dropped columns are still at the end when new columns are added
+                return Collections.emptySet();
+            }
+        }
+        final Set<String> appended = new HashSet<>();
+        final List<Column> columns = source.getColumns();
+        final ListIterator<Column> it = columns.listIterator(columns.size());
+        while (it.hasPrevious()) {
+            final String columnName = it.previous().getColumnName();
+            if (target.getColumn(columnName) != null) {
+                break;
+            }
+            appended.add(columnName);
+        }
+        return appended;
     }
 
     public String getInsertColumnAfterStatement(Column column) {
-        return getAddColumnStatement(column) + " AFTER `" + lastColumn + "`;";
+        return toStatement(getInsertColumnAfterSpecification(column));
     }
 
     public String getInsertColumnFirstStatement(Column column) {
-        return getAddColumnStatement(column) + " FIRST;";
+        return toStatement(getInsertColumnFirstSpecification(column));
+    }
+
+    private String getInsertColumnAfterSpecification(Column column) {
+        return getAddColumnSpecification(column) + " AFTER `" + lastColumn + "`";
+    }
+
+    private String getInsertColumnFirstSpecification(Column column) {
+        return getAddColumnSpecification(column) + " FIRST";
+    }
+
+    private String toStatement(final String specification) {
+        return "ALTER TABLE `" + this.getTableName() + "` " + specification + ";";
     }
 
     private static String getNullStatement(final Column column) {
@@ -56,26 +117,33 @@ public class ColumnStatementStrategy implements StatementStrategy<Column> {
         }
     }
 
-    private String getColumnAlterStatement(final Column to, final String action) {
+    private String getColumnAlterSpecification(final Column to, final String action) {
         StringBuilder sb = new StringBuilder();
-        sb.append("ALTER TABLE `").append(tableName).append("` ").append(action);
+        sb.append(action);
         sb.append(" `").append(to.getColumnName()).append("`");
         sb.append(" `").append(to.getColumnName()).append("` ");
         sb.append(getColumnDefinition(to));
         return sb.toString();
     }
 
-    private String getAddColumnStatement(Column column) {
+    private String getAddColumnSpecification(Column column) {
         StringBuilder sb = new StringBuilder();
 
-        sb.append("ALTER TABLE `").append(this.getTableName()).append("` ").append("ADD");
+        sb.append("ADD");
         sb.append(" `").append(column.getColumnName()).append("` ");
 
         sb.append(getColumnDefinition(column));
         return sb.toString();
     }
 
-    private StringBuilder getColumnDefinition(Column column) {
+    /**
+     * Gets the column definition, as used in ADD, CHANGE and CREATE TABLE, e.g.
+     * <code>varchar(20) NOT NULL DEFAULT 'a' COMMENT ''</code>.
+     *
+     * @param column the column
+     * @return the definition (without the column name)
+     */
+    public static String getColumnDefinition(Column column) {
         StringBuilder sb = new StringBuilder();
         //Type
         sb.append(column.getType()).append(" ");
@@ -84,34 +152,64 @@ public class ColumnStatementStrategy implements StatementStrategy<Column> {
             //Collation
             sb.append("COLLATE ").append(column.getCollation()).append(" ");
         }
-        //Nullable
-        sb.append(getNullStatement(column)).append(" ");
-        //Default
-        if (column.getDefaultValue() != null) {
-            sb.append("DEFAULT ").append(getDefaultValue(column)).append(" ");
+        if (column.isGenerated()) {
+            //Generated columns can't have a default, and MariaDB rejects an explicit NULL on them
+            sb.append("AS (").append(column.getGenerationExpression()).append(") ")
+                    .append(column.getGenerationStorage()).append(" ");
+            if (!column.isNullable()) {
+                sb.append(getNullStatement(column)).append(" ");
+            }
+        } else {
+            //Nullable
+            sb.append(getNullStatement(column)).append(" ");
+            //Default
+            if (column.getDefaultValue() != null) {
+                sb.append("DEFAULT ").append(getDefaultValue(column)).append(" ");
+            }
         }
         //Extra
-        sb.append(column.getExtra()).append(" ");
+        sb.append(getExtra(column)).append(" ");
         //Comment
-        sb.append("COMMENT '").append(column.getComment()).append("'");
-        return sb;
+        sb.append("COMMENT ").append(quote(column.getComment()));
+        return sb.toString();
     }
 
     private static String getDefaultValue(Column column) {
         String rawDefaultValue = column.getDefaultValue();
-        if (isBoolean(rawDefaultValue) || isNumeric(rawDefaultValue)) {
+        if (column.isDefaultValueExpression()) {
+            return "(" + rawDefaultValue + ")";
+        } else if (column.isDefaultValueLiteral()) {
             return rawDefaultValue;
         } else {
-            return "'" + rawDefaultValue + "'";
+            return quote(rawDefaultValue);
         }
     }
 
-    private static boolean isBoolean(String str) {
-        return str.equals("true") || str.equals("true");
+    private static String getExtra(final Column column) {
+        final String extra = column.getExtra();
+        if (extra == null) {
+            return "";
+        }
+        //DEFAULT_GENERATED is only reported by MySQL 8, and a generated column's storage is rendered with its
+        //expression, so neither is part of the extra definition
+        String definition = extra.replace("DEFAULT_GENERATED", "");
+        if (column.isGenerated()) {
+            definition = definition.replace(column.getGenerationStorage() + " GENERATED", "");
+        }
+        return definition.trim();
     }
 
-    private static boolean isNumeric(String str) {
-        return str.matches("-?\\d+(\\.\\d+)?");  //match a number with optional '-' and decimal.
+    /**
+     * Quotes a string literal, escaping quotes and backslashes.
+     *
+     * @param str the string
+     * @return the quoted string, or '' for null
+     */
+    public static String quote(final String str) {
+        if (str == null) {
+            return "''";
+        }
+        return "'" + str.replace("\\", "\\\\").replace("'", "''") + "'";
     }
 
     public String getTableName() {
@@ -119,28 +217,96 @@ public class ColumnStatementStrategy implements StatementStrategy<Column> {
     }
 
     @Override
-    public List<String> getDeleteStatement(Column column) {
+    public void appendDeleteStatement(Column column, List<AlterSpecification> specifications) {
 //        this.lastColumn = column.getColumnName();
-        return ListUtils.createListFromItem("ALTER TABLE `" + this.getTableName() + "` DROP `" + column.getColumnName() + "`;");
+        specifications.add(new AlterSpecification(ChangeType.DROP_COLUMN, "DROP `" + column.getColumnName() + "`"));
     }
 
     @Override
-    public List<String> getUpdateStatement(final Column from, final Column to) {
+    public void appendUpdateStatement(final Column from, final Column to, List<AlterSpecification> specifications) {
         this.lastColumn = to.getColumnName();
-        return ListUtils.createListFromItem(getColumnAlterStatement(to, "CHANGE") + ";");
+        specifications.add(new AlterSpecification(getChangeType(from, to), getColumnAlterSpecification(to, "CHANGE")));
+    }
+
+    private static ChangeType getChangeType(final Column from, final Column to) {
+        if (!Objects.equals(from.getCollation(), to.getCollation())
+                || !Objects.equals(from.getExtra(), to.getExtra())
+                || !Objects.equals(from.getGenerationExpression(), to.getGenerationExpression())
+                || (from.isNullable() && !to.isNullable())) {
+            return ChangeType.MODIFY_COLUMN;
+        }
+        final ColumnType fromType = from.getColumnType();
+        final ColumnType toType = to.getColumnType();
+        if (Objects.equals(fromType, toType)) {
+            return from.isNullable() == to.isNullable() ? ChangeType.ALTER_COLUMN_METADATA : ChangeType.MAKE_NULLABLE;
+        } else if (isVarcharExtension(fromType, toType, to.getCollation())) {
+            return ChangeType.EXTEND_VARCHAR;
+        }
+        return ChangeType.MODIFY_COLUMN;
+    }
+
+    /**
+     * Gets whether a VARCHAR is only made longer, with its length still taking the same number of bytes (one up to
+     * 255 bytes, two above), which InnoDB can do without rebuilding the table.
+     */
+    private static boolean isVarcharExtension(final ColumnType from, final ColumnType to, final String collation) {
+        if (!from.getBaseType().equals("varchar") || !to.getBaseType().equals("varchar")
+                || from.getLength() == null || to.getLength() == null
+                || from.getLength() > to.getLength()) {
+            return false;
+        }
+        final int maxBytes = getMaxCharacterBytes(collation);
+        return (from.getLength() * maxBytes > 255) == (to.getLength() * maxBytes > 255);
+    }
+
+    /**
+     * Gets the most bytes a character takes in the collation's character set.
+     */
+    private static int getMaxCharacterBytes(final String collation) {
+        if (collation == null) {
+            //Unknown, so assume the widest
+            return 4;
+        }
+        final int underscore = collation.indexOf('_');
+        final String charset = underscore < 0 ? collation : collation.substring(0, underscore);
+        switch (charset) {
+            case "utf8mb4":
+            case "utf16":
+            case "utf16le":
+            case "utf32":
+            case "gb18030":
+                return 4;
+            case "utf8":
+            case "utf8mb3":
+            case "ujis":
+            case "eucjpms":
+                return 3;
+            case "big5":
+            case "cp932":
+            case "euckr":
+            case "gb2312":
+            case "gbk":
+            case "sjis":
+            case "ucs2":
+                return 2;
+            default:
+                return 1;
+        }
     }
 
     @Override
-    public List<String> getAddStatement(final Column column) {
-        if (this.lastColumn == null) {
-            this.lastColumn = column.getColumnName();
-            return ListUtils.createListFromItem(this.getInsertColumnFirstStatement(column));
+    public void appendAddStatement(final Column column, List<AlterSpecification> specifications) {
+        if (this.appendedColumns.contains(column.getColumnName())) {
+            specifications.add(new AlterSpecification(
+                    ChangeType.APPEND_COLUMN, this.getAddColumnSpecification(column)));
+        } else if (this.lastColumn == null) {
+            specifications.add(new AlterSpecification(
+                    ChangeType.ADD_COLUMN, this.getInsertColumnFirstSpecification(column)));
         } else {
-            final List<String> result = ListUtils.createListFromItem(this.getInsertColumnAfterStatement(column));
-            this.lastColumn = column.getColumnName();
-            return result;
+            specifications.add(new AlterSpecification(
+                    ChangeType.ADD_COLUMN, this.getInsertColumnAfterSpecification(column)));
         }
-
+        this.lastColumn = column.getColumnName();
     }
 
     @Override
@@ -23,8 +23,8 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.diff.builder;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -71,22 +71,32 @@ public class DiffBuilder<T> {
         }
     }
 
-    public List<String> generateStatements() {
-        final List<String> diffs = new LinkedList<>();
-        for (final String key : from.keySet()) {
-            final T from = this.from.get(key);
-            final T to = this.to.get(key);
+    public List<AlterSpecification> generateStatements() {
+        final List<AlterSpecification> diffs = new ArrayList<>();
+        generateStatements(diffs);
+        return diffs;
+    }
+
+    /**
+     * Appends the specifications needed to change the "from" items into the
+     * "to" items.
+     *
+     * @param specifications the list to append to
+     */
+    public void generateStatements(final List<AlterSpecification> specifications) {
+        for (final Map.Entry<String, T> entry : from.entrySet()) {
+            final T from = entry.getValue();
+            final T to = this.to.get(entry.getKey());
             if (from == null && to != null) {
-                diffs.addAll(this.statementBuilder.getAddStatement(to));
+                this.statementBuilder.appendAddStatement(to, specifications);
             } else if (from != null && to == null) {
-                diffs.addAll(this.statementBuilder.getDeleteStatement(from));
+                this.statementBuilder.appendDeleteStatement(from, specifications);
             } else if (!from.equals(to)) {
-                diffs.addAll(this.statementBuilder.getUpdateStatement(from, to));
+                this.statementBuilder.appendUpdateStatement(from, to, specifications);
             } else {
                 this.statementBuilder.same(to);
             }
         }
-        return diffs;
     }
 
 }
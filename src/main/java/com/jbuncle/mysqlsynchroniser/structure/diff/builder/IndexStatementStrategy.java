@@ -23,9 +23,8 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.diff.builder;
 
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.AlterSpecification.ChangeType;
 import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
-import com.jbuncle.mysqlsynchroniser.util.ListUtils;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -34,22 +33,37 @@ import java.util.List;
  */
 public class IndexStatementStrategy implements StatementStrategy<Index> {
 
+    private static AlterSpecification getDeleteSpecification(Index t) {
+        final ChangeType changeType = t.isPrimaryKey() ? ChangeType.DROP_PRIMARY_KEY : ChangeType.DROP_INDEX;
+        return new AlterSpecification(changeType, t.getDeleteSpecification());
+    }
+
+    private static AlterSpecification getCreateSpecification(Index t) {
+        final ChangeType changeType;
+        if (t.isPrimaryKey()) {
+            changeType = ChangeType.ADD_PRIMARY_KEY;
+        } else if (t.getIndexType() != null) {
+            changeType = ChangeType.ADD_FULLTEXT_INDEX;
+        } else {
+            changeType = ChangeType.ADD_INDEX;
+        }
+        return new AlterSpecification(changeType, t.getCreateSpecification());
+    }
+
     @Override
-    public List<String> getDeleteStatement(Index t) {
-        return ListUtils.createListFromItem(t.getDeleteStatament());
+    public void appendDeleteStatement(Index t, List<AlterSpecification> specifications) {
+        specifications.add(getDeleteSpecification(t));
     }
 
     @Override
-    public List<String> getUpdateStatement(Index from, Index to) {
-        List<String> list = new LinkedList<>();
-        list.add(from.getDeleteStatament());
-        list.add(to.getCreateStatement());
-        return list;
+    public void appendUpdateStatement(Index from, Index to, List<AlterSpecification> specifications) {
+        specifications.add(getDeleteSpecification(from));
+        specifications.add(getCreateSpecification(to));
     }
 
     @Override
-    public List<String> getAddStatement(Index t) {
-        return ListUtils.createListFromItem(t.getCreateStatement());
+    public void appendAddStatement(Index t, List<AlterSpecification> specifications) {
+        specifications.add(getCreateSpecification(t));
     }
 
     @Override
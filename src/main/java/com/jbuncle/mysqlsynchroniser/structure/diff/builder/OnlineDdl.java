@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.diff.builder;
+
+import com.jbuncle.mysqlsynchroniser.structure.ServerVersion;
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.AlterSpecification.ChangeType;
+import java.util.Collection;
+
+/**
+ * Chooses the cheapest ALTER TABLE algorithm the target server supports for
+ * a change, so that ALGORITHM and LOCK clauses can be added to stop MySQL
+ * silently falling back to a blocking table copy.
+ *
+ * Changes that can't be made in place get no clauses, leaving the server to
+ * choose, rather than forcing a copy.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class OnlineDdl {
+
+    /**
+     * ALTER TABLE algorithms, cheapest first.
+     */
+    public enum Algorithm {
+        INSTANT("ALGORITHM=INSTANT"),
+        INPLACE("ALGORITHM=INPLACE, LOCK=NONE"),
+        INPLACE_SHARED("ALGORITHM=INPLACE, LOCK=SHARED"),
+        /**
+         * Whatever the server chooses, which may be a table copy.
+         */
+        DEFAULT("");
+
+        private final String clauses;
+
+        private Algorithm(final String clauses) {
+            this.clauses = clauses;
+        }
+
+        /**
+         * Gets the ALGORITHM and LOCK clauses for the algorithm (INSTANT
+         * only permits the default lock).
+         *
+         * @return the clauses, empty for DEFAULT
+         */
+        public String getClauses() {
+            return clauses;
+        }
+    }
+
+    private final boolean online;
+    private final boolean instantAppend;
+    private final boolean instantAnywhere;
+    private final boolean inplaceVarchar;
+
+    public OnlineDdl(final ServerVersion version) {
+        if (version.isMariaDB()) {
+            this.online = version.isAtLeast(10, 0, 0);
+            this.instantAppend = version.isAtLeast(10, 3, 2);
+            this.instantAnywhere = version.isAtLeast(10, 4, 0);
+            this.inplaceVarchar = version.isAtLeast(10, 2, 2);
+        } else {
+            this.online = version.isAtLeast(5, 6, 0);
+            this.instantAppend = version.isAtLeast(8, 0, 12);
+            this.instantAnywhere = version.isAtLeast(8, 0, 29);
+            this.inplaceVarchar = version.isAtLeast(5, 7, 0);
+        }
+    }
+
+    /**
+     * Whether the server supports ALGORITHM and LOCK clauses at all.
+     *
+     * @return true if online DDL clauses can be used
+     */
+    public boolean isSupported() {
+        return online;
+    }
+
+    public Algorithm getAlgorithm(final ChangeType changeType) {
+        switch (changeType) {
+            case APPEND_COLUMN:
+            case ALTER_COLUMN_METADATA:
+                return instantAppend ? Algorithm.INSTANT : Algorithm.INPLACE;
+            case ADD_COLUMN:
+            case DROP_COLUMN:
+                return instantAnywhere ? Algorithm.INSTANT : Algorithm.INPLACE;
+            case EXTEND_VARCHAR:
+                return inplaceVarchar ? Algorithm.INPLACE : Algorithm.DEFAULT;
+            case MAKE_NULLABLE:
+            case ADD_INDEX:
+            case DROP_INDEX:
+            case ADD_PRIMARY_KEY:
+                return Algorithm.INPLACE;
+            case ADD_FULLTEXT_INDEX:
+                return Algorithm.INPLACE_SHARED;
+            default:
+                //Other type changes and dropping the primary key may need a copy
+                return Algorithm.DEFAULT;
+        }
+    }
+
+    /**
+     * Gets the cheapest algorithm that can make all of the given changes in a
+     * single ALTER TABLE statement.
+     *
+     * @param specifications the changes
+     * @return the algorithm
+     */
+    public Algorithm getAlgorithm(final Collection<AlterSpecification> specifications) {
+        boolean addsPrimaryKey = false;
+        for (final AlterSpecification specification : specifications) {
+            if (specification.getChangeType() == ChangeType.ADD_PRIMARY_KEY) {
+                addsPrimaryKey = true;
+            }
+        }
+        Algorithm algorithm = Algorithm.INSTANT;
+        for (final AlterSpecification specification : specifications) {
+            Algorithm required = getAlgorithm(specification.getChangeType());
+            if (addsPrimaryKey && specification.getChangeType() == ChangeType.DROP_PRIMARY_KEY) {
+                //Replacing the primary key can be done in place
+                required = Algorithm.INPLACE;
+            }
+            if (required.compareTo(algorithm) > 0) {
+                algorithm = required;
+            }
+        }
+        return algorithm;
+    }
+
+}
@@ -26,17 +26,19 @@ package com.jbuncle.mysqlsynchroniser.structure.diff.builder;
 import java.util.List;
 
 /**
+ * Generates the ALTER TABLE specifications needed to change one kind of
+ * table item (e.g. columns or indexes).
  *
  * @author James Buncle <jbuncle@hotmail.com>
  * @param <T>
  */
 public interface StatementStrategy<T> {
 
-    public List<String> getDeleteStatement(T t);
+    public void appendDeleteStatement(T t, List<AlterSpecification> specifications);
 
-    public List<String> getUpdateStatement(T from, T to);
+    public void appendUpdateStatement(T from, T to, List<AlterSpecification> specifications);
 
-    public List<String> getAddStatement(T t);
+    public void appendAddStatement(T t, List<AlterSpecification> specifications);
 
     public void same(T t);
     
@@ -23,6 +23,8 @@
 package com.jbuncle.mysqlsynchroniser.structure.objects;
 
 import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  *
@@ -30,6 +32,12 @@ import java.util.Objects;
  */
 public class Column {
 
+    private static final Pattern NUMERIC = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final Pattern TEMPORAL_FUNCTION = Pattern.compile(
+            "(?i)(CURRENT_TIMESTAMP|NOW|LOCALTIME|LOCALTIMESTAMP)(\\(\\d*\\))?");
+    private static final Pattern BIT_LITERAL = Pattern.compile("b'[01]*'");
+    private static final Pattern GENERATED = Pattern.compile("(?i)\\b(VIRTUAL|STORED|PERSISTENT) GENERATED\\b");
+
     private final String columnName;
     private final String type;
     private final boolean nullable;
@@ -39,6 +47,11 @@ public class Column {
     private final String extra;
     private final String collation;
     private final String comment;
+    private final String generationExpression;
+    private final ColumnType columnType;
+    private final boolean defaultValueLiteral;
+    private final boolean defaultValueExpression;
+    private final int hash;
 
     public String getName() {
         return columnName;
@@ -53,6 +66,24 @@ public class Column {
             final String extra,
             final String collation,
             final String comment) {
+        this(field, type, nullable, key, defaultValue, extra, collation, comment, null);
+    }
+
+    /**
+     * Creates a column, which for a generated column includes its expression, as SHOW COLUMNS doesn't give it.
+     *
+     * @param generationExpression the expression of a generated column, without the enclosing parentheses, or null
+     */
+    public Column(
+            final String field,
+            final String type,
+            final boolean nullable,
+            final String key,
+            final String defaultValue,
+            final String extra,
+            final String collation,
+            final String comment,
+            final String generationExpression) {
 
         this.columnName = field;
         this.type = type;
@@ -62,6 +93,26 @@ public class Column {
         this.extra = extra;
         this.collation = collation;
         this.comment = comment;
+        this.generationExpression = generationExpression;
+        this.columnType = ColumnType.valueOf(type);
+        final boolean temporalDefault = defaultValue != null
+                && isTemporal(this.columnType)
+                && TEMPORAL_FUNCTION.matcher(defaultValue).matches();
+        //MySQL 8 marks expression defaults, including CURRENT_TIMESTAMP, as DEFAULT_GENERATED
+        this.defaultValueExpression = defaultValue != null
+                && extra != null && extra.contains("DEFAULT_GENERATED")
+                && !temporalDefault;
+        this.defaultValueLiteral = defaultValue != null
+                && (defaultValue.equals("true")
+                || NUMERIC.matcher(defaultValue).matches()
+                || temporalDefault
+                || BIT_LITERAL.matcher(defaultValue).matches()
+                || this.defaultValueExpression);
+        this.hash = computeHashCode();
+    }
+
+    private static boolean isTemporal(final ColumnType columnType) {
+        return columnType.getBaseType().equals("timestamp") || columnType.getBaseType().equals("datetime");
     }
 
     @Override
@@ -69,18 +120,37 @@ public class Column {
         return "MySQLTableDescription{" + "field=" + columnName + ", type=" + type + ", nullable=" + nullable + ", key=" + key + ", defaultValue=" + defaultValue + ", extra=" + extra + '}';
     }
 
+    private int computeHashCode() {
+        int hash = 7;
+        hash = 97 * hash + Objects.hashCode(this.columnName);
+        hash = 97 * hash + Objects.hashCode(this.columnType);
+        hash = 97 * hash + (this.nullable ? 1 : 0);
+        hash = 97 * hash + Objects.hashCode(this.key);
+        hash = 97 * hash + Objects.hashCode(this.defaultValue);
+        hash = 97 * hash + Objects.hashCode(this.extra);
+        hash = 97 * hash + Objects.hashCode(this.collation);
+        hash = 97 * hash + Objects.hashCode(this.comment);
+        hash = 97 * hash + Objects.hashCode(this.generationExpression);
+        return hash;
+    }
+
     @Override
     public int hashCode() {
-        int hash = 7;
         return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (!(obj instanceof Column)) {
             return false;
         }
         final Column other = (Column) obj;
+        if (this.hash != other.hash) {
+            return false;
+        }
         if (this.nullable != other.nullable) {
             return false;
         }
@@ -88,7 +158,7 @@ public class Column {
             return false;
         }
 
-        if (!Objects.equals(this.type, other.type)) {
+        if (!Objects.equals(this.columnType, other.columnType)) {
             return false;
         }
 
@@ -105,6 +175,9 @@ public class Column {
         if (!Objects.equals(this.collation, other.collation)) {
             return false;
         }
+        if (!Objects.equals(this.generationExpression, other.generationExpression)) {
+            return false;
+        }
         return Objects.equals(this.comment, other.comment);
     }
 
@@ -116,6 +189,15 @@ public class Column {
         return type;
     }
 
+    /**
+     * Gets the parsed type, which is what {@link #equals(java.lang.Object)} compares.
+     *
+     * @return the parsed type
+     */
+    public ColumnType getColumnType() {
+        return columnType;
+    }
+
     public boolean isNullable() {
         return nullable;
     }
@@ -128,10 +210,61 @@ public class Column {
         return defaultValue;
     }
 
+    /**
+     * Gets whether the default value is written without quotes (a number, boolean, bit value, CURRENT_TIMESTAMP or
+     * an expression).
+     *
+     * @return true if the default value is a literal
+     */
+    public boolean isDefaultValueLiteral() {
+        return defaultValueLiteral;
+    }
+
+    /**
+     * Gets whether the default value is an expression (other than CURRENT_TIMESTAMP), which is written in
+     * parentheses.
+     *
+     * @return true if the default value is an expression
+     */
+    public boolean isDefaultValueExpression() {
+        return defaultValueExpression;
+    }
+
     public String getExtra() {
         return extra;
     }
 
+    /**
+     * Gets whether this is a generated column, marked in the extra as VIRTUAL GENERATED or STORED GENERATED.
+     *
+     * @return true if the column is generated
+     */
+    public boolean isGenerated() {
+        return getGenerationStorage() != null;
+    }
+
+    /**
+     * Gets how a generated column is stored, e.g. VIRTUAL or STORED.
+     *
+     * @return the storage keyword as given in the extra, or null if the column isn't generated
+     */
+    public String getGenerationStorage() {
+        if (extra == null) {
+            return null;
+        }
+        final Matcher matcher = GENERATED.matcher(extra);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Gets the expression of a generated column, without the enclosing parentheses.
+     *
+     * @return the expression, or null if the column isn't generated
+     */
+    public String getGenerationExpression() {
+        return generationExpression;
+    }
+
     public String getCollation() {
         return collation;
     }
@@ -0,0 +1,299 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.objects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A parsed MySQL column type, e.g. <code>decimal(10,2) unsigned</code> or <code>enum('a','b')</code>.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class ColumnType {
+
+    //Bounded, as each distinct enum or set type would otherwise be held for the life of the process
+    private static final int MAX_PARSED = 4096;
+
+    private static final ConcurrentMap<String, ColumnType> PARSED = new ConcurrentHashMap<>();
+
+    private final String baseType;
+    private final Integer length;
+    private final Integer scale;
+    private final List<String> values;
+    private final boolean unsigned;
+    private final boolean zerofill;
+    private final int hash;
+
+    public ColumnType(
+            final String baseType,
+            final Integer length,
+            final Integer scale,
+            final List<String> values,
+            final boolean unsigned,
+            final boolean zerofill) {
+        this.baseType = baseType;
+        this.length = length;
+        this.scale = scale;
+        this.values = values;
+        this.unsigned = unsigned;
+        this.zerofill = zerofill;
+        this.hash = computeHashCode();
+    }
+
+    /**
+     * Gets the parsed type for the given type string. Types are usually only parsed once, as the same few types
+     * are used by most columns. The cache is emptied when it fills up.
+     *
+     * @param type the type, as shown by SHOW FULL COLUMNS, e.g. <code>int(10) unsigned</code>
+     * @return the parsed type, or null if the type is null
+     */
+    public static ColumnType valueOf(final String type) {
+        if (type == null) {
+            return null;
+        }
+        ColumnType columnType = PARSED.get(type);
+        if (columnType == null) {
+            try {
+                columnType = parse(type);
+            } catch (IllegalArgumentException ex) {
+                //Unknown syntax, so only equal to the same type string
+                columnType = new ColumnType(type.trim().toLowerCase(Locale.ROOT), null, null,
+                        Collections.<String>emptyList(), false, false);
+            }
+            if (PARSED.size() >= MAX_PARSED) {
+                PARSED.clear();
+            }
+            final ColumnType existing = PARSED.putIfAbsent(type, columnType);
+            if (existing != null) {
+                columnType = existing;
+            }
+        }
+        return columnType;
+    }
+
+    /**
+     * Parses the given type string.
+     *
+     * @param type the type, e.g. <code>varchar(255)</code>
+     * @return the parsed type
+     * @throws IllegalArgumentException if the type has unbalanced parentheses or a non-numeric size
+     */
+    public static ColumnType parse(final String type) {
+        final String trimmed = type.trim();
+        final int open = trimmed.indexOf('(');
+        final String baseType;
+        final String arguments;
+        final String attributes;
+        if (open < 0) {
+            final int space = trimmed.indexOf(' ');
+            baseType = space < 0 ? trimmed : trimmed.substring(0, space);
+            arguments = null;
+            attributes = space < 0 ? "" : trimmed.substring(space);
+        } else {
+            final int close = findClose(trimmed, open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unbalanced parentheses in type '" + type + "'");
+            }
+            baseType = trimmed.substring(0, open).trim();
+            arguments = trimmed.substring(open + 1, close);
+            attributes = trimmed.substring(close + 1);
+        }
+        final String base = baseType.toLowerCase(Locale.ROOT);
+        final String lowerAttributes = attributes.toLowerCase(Locale.ROOT);
+        final boolean unsigned = lowerAttributes.contains("unsigned");
+        final boolean zerofill = lowerAttributes.contains("zerofill");
+
+        if (arguments == null) {
+            return new ColumnType(base, null, null, Collections.<String>emptyList(), unsigned, zerofill);
+        } else if (base.equals("enum") || base.equals("set")) {
+            return new ColumnType(base, null, null, parseValues(arguments), unsigned, zerofill);
+        }
+        final int comma = arguments.indexOf(',');
+        try {
+            if (comma < 0) {
+                final Integer length = Integer.valueOf(arguments.trim());
+                return new ColumnType(base, isDisplayWidthIgnored(base, length, zerofill) ? null : length, null,
+                        Collections.<String>emptyList(), unsigned, zerofill);
+            }
+            return new ColumnType(base,
+                    Integer.valueOf(arguments.substring(0, comma).trim()),
+                    Integer.valueOf(arguments.substring(comma + 1).trim()),
+                    Collections.<String>emptyList(), unsigned, zerofill);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid size in type '" + type + "'", ex);
+        }
+    }
+
+    /**
+     * Gets whether an integer display width doesn't matter, as MySQL 8.0.19 and later don't report it. It's kept for
+     * ZEROFILL, which pads to it, and for <code>tinyint(1)</code>, which is still reported as it marks a boolean.
+     */
+    private static boolean isDisplayWidthIgnored(final String base, final Integer length, final boolean zerofill) {
+        switch (base) {
+            case "tinyint":
+                return !zerofill && length != 1;
+            case "smallint":
+            case "mediumint":
+            case "int":
+            case "integer":
+            case "bigint":
+                return !zerofill;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Finds the closing parenthesis, skipping any in quoted enum or set values.
+     */
+    private static int findClose(final String type, final int open) {
+        boolean quoted = false;
+        for (int i = open + 1; i < type.length(); i++) {
+            final char c = type.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == ')' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> parseValues(final String arguments) {
+        final List<String> values = new ArrayList<>();
+        final StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < arguments.length(); i++) {
+            final char c = arguments.charAt(i);
+            if (c == '\'') {
+                if (quoted && i + 1 < arguments.length() && arguments.charAt(i + 1) == '\'') {
+                    //Escaped quote
+                    value.append(c);
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (quoted) {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Gets the lower case base type, e.g. <code>varchar</code>.
+     *
+     * @return the base type
+     */
+    public String getBaseType() {
+        return baseType;
+    }
+
+    /**
+     * Gets the length, display width or precision, e.g. 255 for <code>varchar(255)</code> or 10 for
+     * <code>decimal(10,2)</code>. Integer display widths are only kept for ZEROFILL and <code>tinyint(1)</code>.
+     *
+     * @return the length, or null if not given or ignored
+     */
+    public Integer getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the scale, e.g. 2 for <code>decimal(10,2)</code>.
+     *
+     * @return the scale, or null if not given
+     */
+    public Integer getScale() {
+        return scale;
+    }
+
+    /**
+     * Gets the permitted values of an enum or set.
+     *
+     * @return the values, empty for other types
+     */
+    public List<String> getValues() {
+        return values;
+    }
+
+    public boolean isUnsigned() {
+        return unsigned;
+    }
+
+    public boolean isZerofill() {
+        return zerofill;
+    }
+
+    private int computeHashCode() {
+        int h = 3;
+        h = 89 * h + Objects.hashCode(this.baseType);
+        h = 89 * h + Objects.hashCode(this.length);
+        h = 89 * h + Objects.hashCode(this.scale);
+        h = 89 * h + Objects.hashCode(this.values);
+        h = 89 * h + (this.unsigned ? 1 : 0);
+        h = 89 * h + (this.zerofill ? 1 : 0);
+        return h;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ColumnType)) {
+            return false;
+        }
+        final ColumnType other = (ColumnType) obj;
+        return this.hash == other.hash
+                && this.unsigned == other.unsigned
+                && this.zerofill == other.zerofill
+                && Objects.equals(this.baseType, other.baseType)
+                && Objects.equals(this.length, other.length)
+                && Objects.equals(this.scale, other.scale)
+                && Objects.equals(this.values, other.values);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnType{" + "baseType=" + baseType + ", length=" + length + ", scale=" + scale
+                + ", values=" + values + ", unsigned=" + unsigned + ", zerofill=" + zerofill + '}';
+    }
+
+}
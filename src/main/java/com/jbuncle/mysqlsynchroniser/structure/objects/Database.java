@@ -46,18 +46,40 @@ public class Database {
         return views;
     }
 
+    /**
+     * Gets the hash code from the tables' and views' (cached) hash codes. It isn't cached itself as the table and
+     * view maps can be changed.
+     *
+     * @return the hash code
+     */
     @Override
     public int hashCode() {
         int hash = 3;
+        int tablesHash = 0;
+        for (final Table table : this.tables.values()) {
+            tablesHash += table.hashCode();
+        }
+        hash = 97 * hash + tablesHash;
+        int viewsHash = 0;
+        for (final View view : this.views.values()) {
+            viewsHash += view.hashCode();
+        }
+        hash = 97 * hash + viewsHash;
         return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (!(obj instanceof Database)) {
             return false;
         }
         final Database other = (Database) obj;
+        if (this.tables.size() != other.tables.size() || this.views.size() != other.views.size()) {
+            return false;
+        }
         if (!CollectionUtils.isEqualCollection(this.tables.values(), other.tables.values())) {
             return false;
         }
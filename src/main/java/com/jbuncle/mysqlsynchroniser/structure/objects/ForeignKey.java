@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.objects;
+
+import java.util.List;
+
+/**
+ * A foreign key constraint, needed to recreate a table (not compared when
+ * diffing tables).
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class ForeignKey {
+
+    private final String constraintName;
+    private final List<String> columnNames;
+    private final String referencedSchema;
+    private final String referencedTable;
+    private final List<String> referencedColumnNames;
+    private final String updateRule;
+    private final String deleteRule;
+
+    /**
+     *
+     * @param constraintName the constraint name
+     * @param columnNames the referencing columns
+     * @param referencedSchema the schema of the referenced table, or null if it's in the same schema
+     * @param referencedTable the referenced table
+     * @param referencedColumnNames the referenced columns, in the same order as the referencing columns
+     * @param updateRule the ON UPDATE action, e.g. CASCADE
+     * @param deleteRule the ON DELETE action, e.g. RESTRICT
+     */
+    public ForeignKey(
+            final String constraintName,
+            final List<String> columnNames,
+            final String referencedSchema,
+            final String referencedTable,
+            final List<String> referencedColumnNames,
+            final String updateRule,
+            final String deleteRule) {
+        this.constraintName = constraintName;
+        this.columnNames = columnNames;
+        this.referencedSchema = referencedSchema;
+        this.referencedTable = referencedTable;
+        this.referencedColumnNames = referencedColumnNames;
+        this.updateRule = updateRule;
+        this.deleteRule = deleteRule;
+    }
+
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public String getReferencedSchema() {
+        return referencedSchema;
+    }
+
+    public String getReferencedTable() {
+        return referencedTable;
+    }
+
+    public List<String> getReferencedColumnNames() {
+        return referencedColumnNames;
+    }
+
+    public String getUpdateRule() {
+        return updateRule;
+    }
+
+    public String getDeleteRule() {
+        return deleteRule;
+    }
+
+    /**
+     * Gets the definition of this constraint within a CREATE TABLE statement, e.g.
+     * <code>CONSTRAINT `fk` FOREIGN KEY (`owner`) REFERENCES `owner` (`id`) ON DELETE CASCADE</code>.
+     *
+     * @return the definition
+     */
+    public String getDefinition() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("CONSTRAINT `").append(constraintName).append("` FOREIGN KEY (");
+        appendColumns(sb, columnNames);
+        sb.append(") REFERENCES ");
+        if (referencedSchema != null) {
+            sb.append('`').append(referencedSchema).append("`.");
+        }
+        sb.append('`').append(referencedTable).append("` (");
+        appendColumns(sb, referencedColumnNames);
+        sb.append(')');
+        //RESTRICT is the default, so isn't shown by SHOW CREATE TABLE either
+        if (deleteRule != null && !deleteRule.equals("RESTRICT")) {
+            sb.append(" ON DELETE ").append(deleteRule);
+        }
+        if (updateRule != null && !updateRule.equals("RESTRICT")) {
+            sb.append(" ON UPDATE ").append(updateRule);
+        }
+        return sb.toString();
+    }
+
+    private static void appendColumns(final StringBuilder sb, final List<String> columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('`').append(columns.get(i)).append('`');
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ForeignKey{" + "constraintName=" + constraintName + ", columnNames=" + columnNames + ", referencedSchema=" + referencedSchema + ", referencedTable=" + referencedTable + ", referencedColumnNames=" + referencedColumnNames + ", updateRule=" + updateRule + ", deleteRule=" + deleteRule + '}';
+    }
+
+}
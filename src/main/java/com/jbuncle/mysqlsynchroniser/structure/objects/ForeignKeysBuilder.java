@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.objects;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a table's foreign keys from one row per constraint column, in
+ * column order.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class ForeignKeysBuilder {
+
+    private final Map<String, ForeignKey> foreignKeys;
+
+    public ForeignKeysBuilder() {
+        this.foreignKeys = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds the next column of a foreign key.
+     *
+     * @param constraintName the constraint name
+     * @param columnName the referencing column
+     * @param referencedSchema the schema of the referenced table, or null if it's in the same schema
+     * @param referencedTable the referenced table
+     * @param referencedColumnName the referenced column
+     * @param updateRule the ON UPDATE action
+     * @param deleteRule the ON DELETE action
+     */
+    public void addForeignKey(
+            final String constraintName,
+            final String columnName,
+            final String referencedSchema,
+            final String referencedTable,
+            final String referencedColumnName,
+            final String updateRule,
+            final String deleteRule) {
+        ForeignKey foreignKey = this.foreignKeys.get(constraintName);
+        if (foreignKey == null) {
+            //Most foreign keys only have one column
+            foreignKey = new ForeignKey(constraintName, new ArrayList<String>(1),
+                    referencedSchema, referencedTable, new ArrayList<String>(1), updateRule, deleteRule);
+            this.foreignKeys.put(constraintName, foreignKey);
+        }
+        foreignKey.getColumnNames().add(columnName);
+        foreignKey.getReferencedColumnNames().add(referencedColumnName);
+    }
+
+    public List<ForeignKey> getForeignKeys() {
+        return new ArrayList<>(this.foreignKeys.values());
+    }
+
+}
@@ -21,7 +21,7 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.objects;
 
-import com.jbuncle.mysqlsynchroniser.util.ListUtils;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import org.apache.commons.collections.CollectionUtils;
@@ -36,19 +36,47 @@ public class Index {
     private final boolean nonUnique;
     private final String keyName;
     private final List<String> columnNames;
+    private final List<Integer> subParts;
+    private final String indexType;
 
     public Index(
             final String tableName,
             final boolean nonUnique,
             final String keyName,
             final List<String> columnNames) {
+        this(tableName, nonUnique, keyName, columnNames, Collections.<Integer>nCopies(columnNames.size(), null), null);
+    }
+
+    /**
+     *
+     * @param tableName the table the index is on
+     * @param nonUnique whether the index allows duplicates
+     * @param keyName the index name
+     * @param columnNames the indexed columns
+     * @param subParts the prefix length indexed for each column, null for the whole column
+     * @param indexType the index type, e.g. BTREE or FULLTEXT
+     */
+    public Index(
+            final String tableName,
+            final boolean nonUnique,
+            final String keyName,
+            final List<String> columnNames,
+            final List<Integer> subParts,
+            final String indexType) {
         this.tableName = tableName;
         this.nonUnique = nonUnique;
         this.keyName = keyName;
         this.columnNames = columnNames;
+        this.subParts = subParts;
+        //BTREE and HASH are left to the engine, only FULLTEXT and SPATIAL change the definition
+        if ("FULLTEXT".equalsIgnoreCase(indexType) || "SPATIAL".equalsIgnoreCase(indexType)) {
+            this.indexType = indexType.toUpperCase();
+        } else {
+            this.indexType = null;
+        }
     }
 
-    private boolean isPrimaryKey() {
+    public boolean isPrimaryKey() {
         return this.keyName.equals("PRIMARY");
     }
 
@@ -57,27 +85,47 @@ public class Index {
     }
 
     private String getColumnString() {
-        return "`" + ListUtils.implode("`, `", this.columnNames) + "`";
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.columnNames.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('`').append(this.columnNames.get(i)).append('`');
+            final Integer subPart = this.subParts.get(i);
+            if (subPart != null) {
+                sb.append('(').append(subPart).append(')');
+            }
+        }
+        return sb.toString();
+    }
+
+    private Integer getSubPart(final String columnName) {
+        final int index = this.columnNames.indexOf(columnName);
+        return index < 0 ? null : this.subParts.get(index);
+    }
+
+    private String getTypePrefix() {
+        return this.indexType == null ? "" : this.indexType + " ";
     }
 
-    private String getSetPrimaryKeyStatement() {
-        return "ALTER TABLE `" + tableName + "` ADD PRIMARY KEY("
+    private String getSetPrimaryKeySpecification() {
+        return "ADD PRIMARY KEY("
                 + getColumnString()
-                + ");";
+                + ")";
     }
 
-    private String getAddUniqueStatement() {
-        return "ALTER TABLE `" + tableName + "` ADD UNIQUE "
+    private String getAddUniqueSpecification() {
+        return "ADD UNIQUE "
                 + "`" + this.keyName + "` ("
                 + getColumnString()
-                + ");";
+                + ")";
     }
 
-    private String getAddIndex() {
-        return "ALTER TABLE `" + tableName + "` ADD INDEX "
+    private String getAddIndexSpecification() {
+        return "ADD " + getTypePrefix() + "INDEX "
                 + "`" + this.keyName + "` ("
                 + getColumnString()
-                + ");";
+                + ")";
     }
 
     public List<String> getColumnNames() {
@@ -88,6 +136,32 @@ public class Index {
         return this.keyName;
     }
 
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    public boolean isNonUnique() {
+        return this.nonUnique;
+    }
+
+    /**
+     * Gets the prefix length indexed for each column.
+     *
+     * @return the prefix lengths, in column order, with null for a whole column
+     */
+    public List<Integer> getSubParts() {
+        return this.subParts;
+    }
+
+    /**
+     * Gets the index type if it's FULLTEXT or SPATIAL.
+     *
+     * @return FULLTEXT, SPATIAL or null for an ordinary index
+     */
+    public String getIndexType() {
+        return this.indexType;
+    }
+
     public boolean equals(Index target) {
         if (isPrimaryKey() ^ target.isPrimaryKey()) {
             return false;
@@ -95,20 +169,53 @@ public class Index {
             return false;
         } else if (!CollectionUtils.isEqualCollection(this.columnNames, target.columnNames)) {
             return false;
+        } else if (!Objects.equals(this.indexType, target.indexType)) {
+            return false;
+        }
+        for (final String columnName : this.columnNames) {
+            if (!Objects.equals(getSubPart(columnName), target.getSubPart(columnName))) {
+                return false;
+            }
         }
         return true;
     }
 
     public String getCreateStatement() {
+        return "ALTER TABLE `" + tableName + "` " + getCreateSpecification() + ";";
+    }
+
+    /**
+     * Gets the ALTER TABLE specification to create this index, e.g.
+     * <code>ADD INDEX `name` (`column`)</code>.
+     *
+     * @return the specification
+     */
+    public String getCreateSpecification() {
         if (isPrimaryKey()) {
             //Primary key
-            return getSetPrimaryKeyStatement();
+            return getSetPrimaryKeySpecification();
         } else if (isUniqueKey()) {
             //Unique key
-            return getAddUniqueStatement();
+            return getAddUniqueSpecification();
         } else {
             //Just a key/index
-            return getAddIndex();
+            return getAddIndexSpecification();
+        }
+    }
+
+    /**
+     * Gets the definition of this index within a CREATE TABLE statement, e.g.
+     * <code>KEY `name` (`column`(10))</code>.
+     *
+     * @return the definition
+     */
+    public String getDefinition() {
+        if (isPrimaryKey()) {
+            return "PRIMARY KEY (" + getColumnString() + ")";
+        } else if (isUniqueKey()) {
+            return "UNIQUE KEY `" + this.keyName + "` (" + getColumnString() + ")";
+        } else {
+            return getTypePrefix() + "KEY `" + this.keyName + "` (" + getColumnString() + ")";
         }
     }
 
@@ -120,6 +227,19 @@ public class Index {
         }
     }
 
+    /**
+     * Gets the ALTER TABLE specification to drop this index.
+     *
+     * @return the specification
+     */
+    public String getDeleteSpecification() {
+        if (isPrimaryKey()) {
+            return "DROP PRIMARY KEY";
+        } else {
+            return "DROP INDEX `" + keyName + "`";
+        }
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
@@ -127,6 +247,8 @@ public class Index {
         hash = 97 * hash + (this.nonUnique ? 1 : 0);
         hash = 97 * hash + Objects.hashCode(this.keyName);
         hash = 97 * hash + Objects.hashCode(this.columnNames);
+        hash = 97 * hash + Objects.hashCode(this.subParts);
+        hash = 97 * hash + Objects.hashCode(this.indexType);
         return hash;
     }
 
@@ -151,12 +273,18 @@ public class Index {
         if (!Objects.equals(this.keyName, other.keyName)) {
             return false;
         }
+        if (!Objects.equals(this.indexType, other.indexType)) {
+            return false;
+        }
+        if (!Objects.equals(this.subParts, other.subParts)) {
+            return false;
+        }
         return Objects.equals(this.columnNames, other.columnNames);
     }
 
     @Override
     public String toString() {
-        return "Index{" + "tableName=" + tableName + ", nonUnique=" + nonUnique + ", keyName=" + keyName + ", columnNames=" + columnNames + '}';
+        return "Index{" + "tableName=" + tableName + ", nonUnique=" + nonUnique + ", keyName=" + keyName + ", columnNames=" + columnNames + ", subParts=" + subParts + ", indexType=" + indexType + '}';
     }
 
 }
@@ -24,8 +24,8 @@
 package com.jbuncle.mysqlsynchroniser.structure.objects;
 
 import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,26 +36,60 @@ import java.util.Map;
 public class IndexesBuilder {
 
     private final String tableName;
-    private final Map<String, Index> indexes;
+    private final Map<String, List<String>> columnNames;
+    private final Map<String, List<Integer>> subParts;
+    private final Map<String, Boolean> nonUnique;
+    private final Map<String, String> indexTypes;
 
     public IndexesBuilder(final String tableName) {
-        this.indexes = new HashMap<>();
+        this.columnNames = new LinkedHashMap<>();
+        this.subParts = new LinkedHashMap<>();
+        this.nonUnique = new LinkedHashMap<>();
+        this.indexTypes = new LinkedHashMap<>();
         this.tableName = tableName;
     }
 
     public void addIndex(final String keyName, final boolean nonUnique, final String columnName) {
-        if (this.indexes.containsKey(keyName)) {
-            final List<String> columnNames = this.indexes.get(keyName).getColumnNames();
-            columnNames.add(columnName);
-            this.indexes.put(keyName, new Index(tableName, nonUnique, keyName, columnNames));
-        } else {
-            final List<String> columnNames = new LinkedList<>();
-            columnNames.add(columnName);
-            this.indexes.put(keyName, new Index(tableName, nonUnique, keyName, columnNames));
+        addIndex(keyName, nonUnique, columnName, null, null);
+    }
+
+    /**
+     * Adds the next column of an index.
+     *
+     * @param keyName the index name
+     * @param nonUnique whether the index allows duplicates
+     * @param columnName the column name
+     * @param subPart the prefix length indexed, or null for the whole column
+     * @param indexType the index type, e.g. BTREE or FULLTEXT
+     */
+    public void addIndex(
+            final String keyName,
+            final boolean nonUnique,
+            final String columnName,
+            final Integer subPart,
+            final String indexType) {
+        List<String> keyColumns = this.columnNames.get(keyName);
+        List<Integer> keySubParts = this.subParts.get(keyName);
+        if (keyColumns == null) {
+            //Most keys only have one or two columns
+            keyColumns = new ArrayList<>(2);
+            keySubParts = new ArrayList<>(2);
+            this.columnNames.put(keyName, keyColumns);
+            this.subParts.put(keyName, keySubParts);
         }
+        keyColumns.add(columnName);
+        keySubParts.add(subPart);
+        this.nonUnique.put(keyName, nonUnique);
+        this.indexTypes.put(keyName, indexType);
     }
 
     public List<Index> getIndexes() {
-        return new LinkedList<>(this.indexes.values());
+        final List<Index> indexes = new ArrayList<>(this.columnNames.size());
+        for (final Map.Entry<String, List<String>> entry : this.columnNames.entrySet()) {
+            final String keyName = entry.getKey();
+            indexes.add(new Index(tableName, this.nonUnique.get(keyName), keyName, entry.getValue(),
+                    this.subParts.get(keyName), this.indexTypes.get(keyName)));
+        }
+        return indexes;
     }
 }
@@ -21,7 +21,10 @@
  */
 package com.jbuncle.mysqlsynchroniser.structure.objects;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.apache.commons.collections.CollectionUtils;
 
@@ -34,14 +37,50 @@ public class Table {
     private final String tableName;
     private final List<Column> columns;
     private final List<Index> indexes;
+    private final TableOptions options;
+    private final List<ForeignKey> foreignKeys;
+    private final Map<String, Column> columnsByName;
+    private final Map<String, Index> indexesByName;
+    private int hash;
 
     public Table(
             final String tableName,
             final List<Column> columns,
             final List<Index> indexes) {
+        this(tableName, columns, indexes, null);
+    }
+
+    public Table(
+            final String tableName,
+            final List<Column> columns,
+            final List<Index> indexes,
+            final TableOptions options) {
+        this(tableName, columns, indexes, options, Collections.<ForeignKey>emptyList());
+    }
+
+    public Table(
+            final String tableName,
+            final List<Column> columns,
+            final List<Index> indexes,
+            final TableOptions options,
+            final List<ForeignKey> foreignKeys) {
         this.tableName = tableName;
         this.columns = columns;
         this.indexes = indexes;
+        this.options = options;
+        this.foreignKeys = foreignKeys;
+        this.columnsByName = new HashMap<>(columns.size() * 4 / 3 + 1);
+        for (final Column column : columns) {
+            if (!this.columnsByName.containsKey(column.getName())) {
+                this.columnsByName.put(column.getName(), column);
+            }
+        }
+        this.indexesByName = new HashMap<>(indexes.size() * 4 / 3 + 1);
+        for (final Index index : indexes) {
+            if (!this.indexesByName.containsKey(index.getKeyName())) {
+                this.indexesByName.put(index.getKeyName(), index);
+            }
+        }
     }
 
     public List<Column> getColumns() {
@@ -49,12 +88,7 @@ public class Table {
     }
 
     public Index getIndex(final String keyName) {
-        for (final Index index : getIndexes()) {
-            if (index.getKeyName().equals(keyName)) {
-                return index;
-            }
-        }
-        return null;
+        return this.indexesByName.get(keyName);
     }
 
     public List<Index> getIndexes() {
@@ -62,30 +96,71 @@ public class Table {
     }
 
     public Column getColumn(final String columnName) {
-        for (final Column column : this.getColumns()) {
-            if (column.getName().equals(columnName)) {
-                return column;
-            }
-        }
-        return null;
+        return this.columnsByName.get(columnName);
     }
 
     public String getTableName() {
         return tableName;
     }
 
+    /**
+     * Gets the table options (not compared by {@link #equals(java.lang.Object)}).
+     *
+     * @return the options, or null if they weren't loaded
+     */
+    public TableOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Gets the foreign keys (not compared by {@link #equals(java.lang.Object)}).
+     *
+     * @return the foreign keys, empty if they weren't loaded
+     */
+    public List<ForeignKey> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    /**
+     * Gets the hash code, which like {@link #equals(java.lang.Object)} ignores the order of the columns and
+     * indexes. It's calculated once, so the columns and indexes mustn't be changed after the table is created.
+     *
+     * @return the hash code
+     */
     @Override
     public int hashCode() {
-        int hash = 5;
-        return hash;
+        int h = this.hash;
+        if (h == 0) {
+            h = 5;
+            h = 97 * h + Objects.hashCode(this.tableName);
+            //Sum so the hash doesn't depend on order
+            int columnsHash = 0;
+            for (final Column column : this.columns) {
+                columnsHash += column.hashCode();
+            }
+            h = 97 * h + columnsHash;
+            int indexesHash = 0;
+            for (final Index index : this.indexes) {
+                indexesHash += index.hashCode();
+            }
+            h = 97 * h + indexesHash;
+            this.hash = h;
+        }
+        return h;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (!(obj instanceof Table)) {
             return false;
         }
         final Table other = (Table) obj;
+        if (this.hashCode() != other.hashCode()) {
+            return false;
+        }
         if (!Objects.equals(this.tableName, other.tableName)) {
             return false;
         }
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.objects;
+
+/**
+ * The table level options needed to recreate a table, e.g. engine and
+ * collation.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class TableOptions {
+
+    private final String engine;
+    private final String collation;
+    private final String rowFormat;
+    private final Long autoIncrement;
+    private final String comment;
+
+    public TableOptions(
+            final String engine,
+            final String collation,
+            final String rowFormat,
+            final Long autoIncrement,
+            final String comment) {
+        this.engine = engine;
+        this.collation = collation;
+        this.rowFormat = rowFormat;
+        this.autoIncrement = autoIncrement;
+        this.comment = comment;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public String getCollation() {
+        return collation;
+    }
+
+    /**
+     * Gets the character set, which MySQL collation names are prefixed with.
+     *
+     * @return the character set, or null if there is no collation
+     */
+    public String getCharacterSet() {
+        if (collation == null) {
+            return null;
+        }
+        final int separator = collation.indexOf('_');
+        if (separator < 0) {
+            return collation;
+        }
+        return collation.substring(0, separator);
+    }
+
+    public String getRowFormat() {
+        return rowFormat;
+    }
+
+    public Long getAutoIncrement() {
+        return autoIncrement;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    @Override
+    public String toString() {
+        return "TableOptions{" + "engine=" + engine + ", collation=" + collation + ", rowFormat=" + rowFormat + ", autoIncrement=" + autoIncrement + ", comment=" + comment + '}';
+    }
+
+}
@@ -39,6 +39,20 @@ public class View {
         return this.viewCreateStatement.equals(target.viewCreateStatement);
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof View && equals((View) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.viewCreateStatement.hashCode();
+    }
+
+    public String getViewName() {
+        return this.viewName;
+    }
+
     public String getCreateStatement() {
         return this.viewCreateStatement;
     }
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.util;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class FutureUtils {
+
+    /**
+     * Waits for the given future, rethrowing any failure as an SQLException.
+     *
+     * @param <T>
+     * @param future the future to wait on
+     * @return the result of the future
+     * @throws SQLException if the task failed or the wait was interrupted
+     */
+    public static <T> T get(final Future<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted whilst waiting for result", ex);
+        } catch (ExecutionException ex) {
+            throw toSQLException(ex.getCause());
+        }
+    }
+
+    /**
+     * Waits for the next task to complete on the given completion service, rethrowing any failure as an
+     * SQLException.
+     *
+     * @param <T>
+     * @param completionService the completion service to take from
+     * @return the result of the next completed task
+     * @throws SQLException if the task failed or the wait was interrupted
+     */
+    public static <T> T take(final CompletionService<T> completionService) throws SQLException {
+        try {
+            return get(completionService.take());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted whilst waiting for result", ex);
+        }
+    }
+
+    private static SQLException toSQLException(final Throwable cause) {
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new SQLException(cause);
+    }
+}
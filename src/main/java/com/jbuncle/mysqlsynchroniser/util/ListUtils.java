@@ -23,7 +23,7 @@
  */
 package com.jbuncle.mysqlsynchroniser.util;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -33,7 +33,7 @@ import java.util.List;
 public class ListUtils {
 
     public static <T> List<T> createListFromItem(final T t) {
-        final List<T> list = new LinkedList<>();
+        final List<T> list = new ArrayList<>(1);
         list.add(t);
         return list;
     }
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class IncrementalStateTest extends TestCase {
+
+    public IncrementalStateTest(final String testName) {
+        super(testName);
+    }
+
+    private static IncrementalState roundTrip(final IncrementalState state) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        state.write(out);
+        return IncrementalState.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Test of write and read methods, of class IncrementalState.
+     */
+    public void testRoundTrip() throws IOException {
+        final List<String> statements = Arrays.asList(
+                "ALTER TABLE `pet.owner` CHANGE `name` `name` varchar(20) NOT NULL COMMENT '';",
+                "CREATE TABLE `pet.owner` (\n  `id` int(11)\n);");
+        final IncrementalState state = new IncrementalState();
+        state.put("pet.owner", "1:2:3:4", "1:2:3:5", statements);
+        state.put("food", null, "1:1:0:0", Collections.singletonList("DROP TABLE food;"));
+        state.put("bowl", "1:1:0:0", "1:1:0:0", Collections.<String>emptyList());
+
+        final IncrementalState read = roundTrip(state);
+        assertEquals(statements, read.getStatements("pet.owner", "1:2:3:4", "1:2:3:5"));
+        assertEquals(Arrays.asList("DROP TABLE food;"), read.getStatements("food", null, "1:1:0:0"));
+        assertEquals(Collections.<String>emptyList(), read.getStatements("bowl", "1:1:0:0", "1:1:0:0"));
+    }
+
+    /**
+     * Test of getStatements method, of class IncrementalState, for changed tables.
+     */
+    public void testChanged() throws IOException {
+        final IncrementalState state = new IncrementalState();
+        state.put("pet", "1:2:3:4", "1:2:3:5", Collections.<String>emptyList());
+
+        assertNull(state.getStatements("pet", "1:2:3:4", "1:2:3:6"));
+        assertNull(state.getStatements("pet", "1:2:3:0", "1:2:3:5"));
+        assertNull(state.getStatements("pet", null, "1:2:3:5"));
+        assertNull(state.getStatements("food", "1:2:3:4", "1:2:3:5"));
+    }
+
+    /**
+     * Test of save and load methods, of class IncrementalState, replacing an existing file.
+     */
+    public void testSave() throws IOException {
+        final File dir = File.createTempFile("incremental", "");
+        assertTrue(dir.delete());
+        assertTrue(dir.mkdir());
+        final File file = new File(dir, "state.properties");
+        try {
+            final IncrementalState state = new IncrementalState();
+            state.put("pet", "1:2:3:4", "1:2:3:5", Collections.singletonList("DROP TABLE pet;"));
+            state.save(file);
+            state.put("food", "1:1:0:0", "1:1:0:1", Collections.<String>emptyList());
+            state.save(file);
+
+            final IncrementalState loaded = IncrementalState.load(file);
+            assertEquals(Arrays.asList("DROP TABLE pet;"), loaded.getStatements("pet", "1:2:3:4", "1:2:3:5"));
+            assertEquals(Collections.<String>emptyList(), loaded.getStatements("food", "1:1:0:0", "1:1:0:1"));
+            //No temporary files left behind
+            assertEquals(Arrays.asList("state.properties"), Arrays.asList(dir.list()));
+        } finally {
+            file.delete();
+            dir.delete();
+        }
+    }
+
+    /**
+     * Test of read method, of class IncrementalState, with missing statements.
+     */
+    public void testReadInvalid() {
+        assertInvalid("version=1\ntable.pet.statements=2\ntable.pet.statement.0=DROP TABLE pet;\n");
+        assertInvalid("version=1\ntable.pet.statements=\n");
+        assertInvalid("version=1\ntable.pet.statements=-1\n");
+    }
+
+    private static void assertInvalid(final String properties) {
+        try {
+            IncrementalState.read(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)));
+            fail("Expected IOException");
+        } catch (IOException ex) {
+            //Expected
+        }
+    }
+}
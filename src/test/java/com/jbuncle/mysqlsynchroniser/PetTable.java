@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser;
+
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The <code>pet</code> table the tests are built on: an <code>id int(11)</code> primary key and a nullable
+ * <code>name varchar(20)</code>, with helpers for variations on it and for its rows.
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public final class PetTable {
+
+    public static final String NAME = "pet";
+
+    private PetTable() {
+    }
+
+    /**
+     * Creates the pet table.
+     *
+     * @return the table, with the id and name columns and its primary key
+     */
+    public static Table create() {
+        return create(id(), column("name", "varchar(20)", true));
+    }
+
+    /**
+     * Creates a pet table with the given columns, keyed on the first.
+     *
+     * @param columns the columns
+     * @return the table
+     */
+    public static Table create(final Column... columns) {
+        return create(Arrays.asList(columns), index("PRIMARY", false, columns[0].getColumnName()));
+    }
+
+    /**
+     * Creates a pet table with the given columns and indexes.
+     *
+     * @param columns the columns
+     * @param indexes the indexes
+     * @return the table
+     */
+    public static Table create(final List<Column> columns, final Index... indexes) {
+        return new Table(NAME, columns, Arrays.asList(indexes));
+    }
+
+    /**
+     * Gets the primary key column.
+     *
+     * @return the <code>id int(11)</code> column
+     */
+    public static Column id() {
+        return new Column("id", "int(11)", false, "PRI", null, "", null, "");
+    }
+
+    /**
+     * Creates a column with no key, default, extra, collation or comment.
+     *
+     * @param name the column name
+     * @param type the column type
+     * @param nullable whether the column is nullable
+     * @return the column
+     */
+    public static Column column(final String name, final String type, final boolean nullable) {
+        return column(name, type, nullable, null);
+    }
+
+    /**
+     * Creates a column with the given collation and no key, default, extra or comment.
+     *
+     * @param name the column name
+     * @param type the column type
+     * @param nullable whether the column is nullable
+     * @param collation the collation, or null
+     * @return the column
+     */
+    public static Column column(final String name, final String type, final boolean nullable,
+            final String collation) {
+        return new Column(name, type, nullable, "", null, "", collation, "");
+    }
+
+    /**
+     * Creates an index on the pet table.
+     *
+     * @param keyName the index name
+     * @param nonUnique whether the index allows duplicates
+     * @param columns the indexed columns
+     * @return the index
+     */
+    public static Index index(final String keyName, final boolean nonUnique, final String... columns) {
+        return new Index(NAME, nonUnique, keyName, Arrays.asList(columns));
+    }
+
+    /**
+     * Creates a row of the pet table, as RowFormat reads it.
+     *
+     * @param id the id
+     * @param name the name, or null
+     * @return the row values
+     */
+    public static Object[] row(final int id, final String name) {
+        return new Object[]{new BigDecimal(id), name};
+    }
+}
@@ -26,6 +26,10 @@ package com.jbuncle.mysqlsynchroniser;
 import com.jbuncle.mysqlsynchroniser.connection.ArrayRowMapper;
 import com.jbuncle.mysqlsynchroniser.connection.ConnectionStrategy;
 import com.jbuncle.mysqlsynchroniser.connection.RowMapper;
+import com.jbuncle.mysqlsynchroniser.structure.MySQL;
+import com.jbuncle.mysqlsynchroniser.structure.SchemaGenerator;
+import com.jbuncle.mysqlsynchroniser.structure.diff.DatabaseDiff;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
 import com.mysql.jdbc.jdbc2.optional.MysqlDataSource;
 import java.sql.SQLException;
 import java.util.Arrays;
@@ -191,4 +195,22 @@ public class ScriptGeneratorTest extends TestCase {
         compareQueries("SHOW FULL TABLES;", false);
     }
 
+    /**
+     * Test of create method, of class SchemaGenerator, loading the created schema back unchanged.
+     *
+     * @throws java.lang.Exception
+     */
+    public void testSchemaGeneratorRoundTrip() throws Exception {
+        System.out.println("schemaGeneratorRoundTrip");
+        final SchemaGenerator generator = new SchemaGenerator(7);
+        generator.setTableCount(20);
+        generator.setMutationRate(1);
+        final Database generated = generator.mutate(generator.generate());
+
+        SchemaGenerator.create(generated, source.getDataSource());
+        final Database loaded = new MySQL(source.getDataSource()).loadDatabase();
+
+        assertEquals(Arrays.<String>asList(), new DatabaseDiff(generated, loaded).diff());
+    }
+
 }
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SessionConnectionStrategyTest extends TestCase {
+
+    public SessionConnectionStrategyTest(final String testName) {
+        super(testName);
+    }
+
+    /**
+     * Creates a DataSource whose connections only support being closed.
+     */
+    private static DataSource createDataSource() {
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (!method.getName().equals("getConnection")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                return createConnection();
+            }
+        });
+    }
+
+    private static Connection createConnection() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new InvocationHandler() {
+            private boolean closed;
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                switch (method.getName()) {
+                    case "close":
+                        closed = true;
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        });
+    }
+
+    /**
+     * Test of acquireConnection and releaseConnection methods, of class SessionConnectionStrategy.
+     */
+    public void testReuse() throws SQLException {
+        try (final SessionConnectionStrategy session = new SessionConnectionStrategy(createDataSource())) {
+            final Connection conn = session.acquireConnection();
+            session.releaseConnection(conn);
+            assertSame(conn, session.acquireConnection());
+        }
+    }
+
+    /**
+     * Test of close method, of class SessionConnectionStrategy, with a caller waiting for a connection.
+     */
+    public void testCloseWakesWaiters() throws Exception {
+        final SessionConnectionStrategy session = new SessionConnectionStrategy(createDataSource());
+        final Connection conn = session.acquireConnection();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    session.acquireConnection();
+                } catch (SQLException ex) {
+                    failure.set(ex);
+                }
+            }
+        });
+        waiter.start();
+        //Wait for the waiter to block on the only connection
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        session.close();
+        waiter.join(10000);
+
+        assertFalse(waiter.isAlive());
+        assertEquals("Session is closed", failure.get().getMessage());
+        assertTrue(conn.isClosed());
+    }
+}
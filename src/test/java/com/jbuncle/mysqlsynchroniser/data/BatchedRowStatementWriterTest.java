@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.PetTable;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementList;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class BatchedRowStatementWriterTest extends TestCase {
+
+    public BatchedRowStatementWriterTest(final String testName) {
+        super(testName);
+    }
+
+    private static RowFormat createFormat() {
+        final Table table = PetTable.create();
+        return new RowFormat(table, table);
+    }
+
+    /**
+     * Test of flush method, of class BatchedRowStatementWriter.
+     */
+    public void testFlush() {
+        final StatementList statements = new StatementList();
+        final BatchedRowStatementWriter writer
+                = new BatchedRowStatementWriter(createFormat(), statements, 16 * 1024 * 1024);
+        writer.insert(PetTable.row(1, "Fluffy"));
+        writer.update(PetTable.row(2, "Claws"), PetTable.row(2, "Claws II"));
+        writer.delete(PetTable.row(3, "Buffy"));
+        writer.insert(PetTable.row(4, null));
+        writer.delete(PetTable.row(5, "Fang"));
+        assertTrue(statements.isEmpty());
+        writer.flush();
+
+        assertEquals(Arrays.asList(
+                "DELETE FROM `pet` WHERE `id` IN (3, 5);",
+                "INSERT INTO `pet` (`id`, `name`) VALUES (2, 'Claws II') "
+                + "ON DUPLICATE KEY UPDATE `name` = VALUES(`name`);",
+                "INSERT INTO `pet` (`id`, `name`) VALUES (1, 'Fluffy'), (4, NULL);"),
+                statements);
+    }
+
+    /**
+     * Test of update method, of class BatchedRowStatementWriter, with another unique index.
+     */
+    public void testUpdateWithUniqueIndex() {
+        final Table table = PetTable.create(
+                Arrays.asList(PetTable.id(), new Column("name", "varchar(20)", true, "UNI", null, "", null, "")),
+                PetTable.index("PRIMARY", false, "id"),
+                PetTable.index("name", false, "name"));
+        final StatementList statements = new StatementList();
+        final BatchedRowStatementWriter writer
+                = new BatchedRowStatementWriter(new RowFormat(table, table), statements, 16 * 1024 * 1024);
+        writer.insert(PetTable.row(1, "Claws"));
+        writer.update(PetTable.row(2, "Claws"), PetTable.row(2, "Claws II"));
+        writer.delete(PetTable.row(3, "Buffy"));
+        writer.update(PetTable.row(4, "Rex"), PetTable.row(4, "Buffy"));
+        assertTrue(statements.isEmpty());
+        writer.flush();
+
+        assertEquals(Arrays.asList(
+                "DELETE FROM `pet` WHERE `id` IN (3);",
+                "UPDATE `pet` SET `name` = 'Claws II' WHERE `id` = 2;",
+                "UPDATE `pet` SET `name` = 'Buffy' WHERE `id` = 4;",
+                "INSERT INTO `pet` (`id`, `name`) VALUES (1, 'Claws');"),
+                statements);
+    }
+
+    /**
+     * Test of insert method, of class BatchedRowStatementWriter, with more rows than fit in a packet.
+     */
+    public void testMaxAllowedPacket() {
+        final StatementList statements = new StatementList();
+        //The smallest statement size is 1024 bytes
+        final BatchedRowStatementWriter writer = new BatchedRowStatementWriter(createFormat(), statements, 0);
+        for (int i = 0; i < 1000; i++) {
+            writer.insert(PetTable.row(i, "Pet number " + i));
+        }
+        writer.flush();
+
+        assertTrue(statements.size() > 1);
+        int rows = 0;
+        for (final String statement : statements) {
+            assertTrue(statement.length() <= 1024);
+            rows += statement.split("\\), \\(").length;
+        }
+        assertEquals(1000, rows);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.PetTable;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.util.Arrays;
+import java.util.Collections;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class RowFormatTest extends TestCase {
+
+    public RowFormatTest(final String testName) {
+        super(testName);
+    }
+
+    private static Table createTable(final String keyType, final String... keyColumns) {
+        return PetTable.create(
+                Arrays.asList(PetTable.column("id", keyType, false), PetTable.column("name", "varchar(20)", true)),
+                PetTable.index("PRIMARY", false, keyColumns));
+    }
+
+    /**
+     * Test of getIntegerKeyColumn method, of class RowFormat.
+     */
+    public void testGetIntegerKeyColumn() {
+        final Table integerKey = createTable("bigint(20) unsigned", "id");
+        assertEquals("id", new RowFormat(integerKey, integerKey).getIntegerKeyColumn());
+
+        final Table textKey = createTable("varchar(10)", "id");
+        assertNull(new RowFormat(textKey, textKey).getIntegerKeyColumn());
+
+        final Table compositeKey = createTable("int(11)", "id", "name");
+        assertNull(new RowFormat(compositeKey, compositeKey).getIntegerKeyColumn());
+    }
+
+    /**
+     * Test of getIntegerKeyColumn and isSame methods, of class RowFormat, with spatial columns.
+     */
+    public void testGeometryColumns() {
+        final Table pointKey = createTable("point", "id");
+        final RowFormat format = new RowFormat(pointKey, pointKey);
+        assertNull(format.getIntegerKeyColumn());
+        assertTrue(format.isSame(new Object[]{new byte[]{1, 2}, null}, new Object[]{new byte[]{1, 2}, null}, 0));
+        assertFalse(format.isSame(new Object[]{new byte[]{1, 2}, null}, new Object[]{new byte[]{1, 3}, null}, 0));
+
+        final Table multiPointKey = createTable("multipoint", "id");
+        assertNull(new RowFormat(multiPointKey, multiPointKey).getIntegerKeyColumn());
+    }
+
+    /**
+     * Test of getChecksumExpression and getSelectQuery methods, of class RowFormat.
+     */
+    public void testQueries() {
+        final Table table = createTable("int(11)", "id");
+        final RowFormat format = new RowFormat(table, table);
+
+        assertEquals("CRC32(CONCAT_WS('#', LENGTH(`id`), `id`, LENGTH(`name`), `name`, "
+                + "CONCAT(ISNULL(`id`), ISNULL(`name`))))",
+                format.getChecksumExpression());
+        assertEquals("SELECT `id`, `name` FROM `pet` WHERE `id` BETWEEN 1 AND 10 ORDER BY `id`;",
+                format.getSelectQuery("`id` BETWEEN 1 AND 10"));
+    }
+
+    /**
+     * Test of getSelectQuery and compareKeys methods, of class RowFormat.
+     */
+    public void testKeyOrder() {
+        final Table table = new Table("owner",
+                Arrays.asList(
+                        new Column("name", "varchar(20)", true, "", null, "", null, ""),
+                        new Column("pet", "varchar(20)", true, "", null, "", null, "")),
+                Collections.singletonList(new Index("owner", false, "PRIMARY", Arrays.asList("name"))));
+        final RowFormat format = new RowFormat(table, table);
+
+        assertEquals("SELECT BINARY `name`, `pet` FROM `owner` ORDER BY BINARY `name`;", format.getSelectQuery());
+        //Byte order, not collation order
+        assertTrue(format.compareKeys(new Object[]{new byte[]{'Z'}, null}, new Object[]{new byte[]{'a'}, null}) < 0);
+        //Unsigned bytes, so latin1's e acute (0xE9) sorts after its euro sign (0x80), as ORDER BY BINARY gives
+        assertTrue(format.compareKeys(
+                new Object[]{new byte[]{(byte) 0xe9}, null}, new Object[]{new byte[]{(byte) 0x80}, null}) > 0);
+        assertEquals(0, format.compareKeys(new Object[]{new byte[]{'a'}, "x"}, new Object[]{new byte[]{'a'}, "y"}));
+    }
+
+    /**
+     * Test of appendLiteral method, of class RowFormat, for a text key.
+     */
+    public void testTextKeyLiteral() {
+        final Table table = new Table("owner",
+                Arrays.asList(
+                        new Column("name", "varchar(20)", true, "", null, "", "latin1_swedish_ci", ""),
+                        new Column("pet", "varchar(20)", true, "", null, "", "latin1_swedish_ci", "")),
+                Collections.singletonList(new Index("owner", false, "PRIMARY", Arrays.asList("name"))));
+        final RowFormat format = new RowFormat(table, table);
+
+        final StringBuilder sb = new StringBuilder();
+        format.appendLiteral(sb, 0, new byte[]{'R', (byte) 0xe9});
+        sb.append(", ");
+        format.appendLiteral(sb, 1, "Rex");
+        assertEquals("_latin1 X'52E9', 'Rex'", sb.toString());
+        assertTrue(format.isSame(new Object[]{new byte[]{'R'}, null}, new Object[]{new byte[]{'R'}, null}, 0));
+    }
+
+    /**
+     * Test of RowFormat constructor, with different primary keys.
+     */
+    public void testDifferentPrimaryKey() {
+        try {
+            new RowFormat(createTable("int(11)", "id"), createTable("int(11)", "id", "name"));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            //Expected
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.PetTable;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementList;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class RowStatementWriterTest extends TestCase {
+
+    public RowStatementWriterTest(final String testName) {
+        super(testName);
+    }
+
+    private static RowFormat createFormat() {
+        final Table table = PetTable.create(
+                PetTable.id(),
+                PetTable.column("name", "varchar(20)", true),
+                PetTable.column("photo", "blob", true));
+        return new RowFormat(table, table);
+    }
+
+    /**
+     * Test of insert method, of class RowStatementWriter.
+     */
+    public void testInsert() {
+        final StatementList statements = new StatementList();
+        new RowStatementWriter(createFormat(), statements).insert(
+                new Object[]{new BigDecimal(1), "Fluffy's\nbed", new byte[]{0x0a, (byte) 0xff}});
+
+        assertEquals(Arrays.asList(
+                "INSERT INTO `pet` (`id`, `name`, `photo`) VALUES (1, 'Fluffy\\'s\\nbed', X'0AFF');"),
+                statements);
+    }
+
+    /**
+     * Test of update method, of class RowStatementWriter.
+     */
+    public void testUpdate() {
+        final StatementList statements = new StatementList();
+        final RowStatementWriter writer = new RowStatementWriter(createFormat(), statements);
+        writer.update(
+                new Object[]{new BigDecimal(2), "Claws", new byte[]{1}},
+                new Object[]{new BigDecimal(2), null, new byte[]{1}});
+
+        assertEquals(Arrays.asList("UPDATE `pet` SET `name` = NULL WHERE `id` = 2;"), statements);
+    }
+
+    /**
+     * Test of delete method, of class RowStatementWriter.
+     */
+    public void testDelete() {
+        final StatementList statements = new StatementList();
+        new RowStatementWriter(createFormat(), statements).delete(new Object[]{new BigDecimal(3), "Buffy", null});
+
+        assertEquals(Arrays.asList("DELETE FROM `pet` WHERE `id` = 3;"), statements);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.data;
+
+import com.jbuncle.mysqlsynchroniser.PetTable;
+import com.jbuncle.mysqlsynchroniser.structure.diff.StatementList;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class TableDataDiffTest extends TestCase {
+
+    public TableDataDiffTest(final String testName) {
+        super(testName);
+    }
+
+    private static TableDataDiff createDiff() {
+        final Table table = PetTable.create();
+        return new TableDataDiff(table, table);
+    }
+
+    private static TableDataDiff.RowSource rows(final Object[]... rows) {
+        final Iterator<Object[]> iterator = Arrays.asList(rows).iterator();
+        return new TableDataDiff.RowSource() {
+
+            @Override
+            public Object[] next() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+        };
+    }
+
+    /**
+     * Test of merge method, of class TableDataDiff.
+     */
+    public void testMerge() throws SQLException {
+        final TableDataDiff diff = createDiff();
+        final StatementList statements = new StatementList();
+        diff.merge(
+                rows(PetTable.row(1, "Fluffy"), PetTable.row(2, "Claws"), PetTable.row(4, "Rex"), PetTable.row(6, "Tiddles")),
+                rows(PetTable.row(2, "Claws"), PetTable.row(3, "Buffy"), PetTable.row(4, null), PetTable.row(5, "Spot")),
+                new RowStatementWriter(diff.getFormat(), statements));
+
+        final List<String> expected = Arrays.asList(
+                "INSERT INTO `pet` (`id`, `name`) VALUES (1, 'Fluffy');",
+                "DELETE FROM `pet` WHERE `id` = 3;",
+                "UPDATE `pet` SET `name` = 'Rex' WHERE `id` = 4;",
+                "DELETE FROM `pet` WHERE `id` = 5;",
+                "INSERT INTO `pet` (`id`, `name`) VALUES (6, 'Tiddles');");
+        assertEquals(expected, statements);
+    }
+
+    /**
+     * Test of merge method, of class TableDataDiff, with an empty side.
+     */
+    public void testMergeEmpty() throws SQLException {
+        final TableDataDiff diff = createDiff();
+        final StatementList statements = new StatementList();
+        diff.merge(rows(), rows(PetTable.row(1, "Fluffy")), new RowStatementWriter(diff.getFormat(), statements));
+        diff.merge(rows(PetTable.row(2, "Claws")), rows(), new RowStatementWriter(diff.getFormat(), statements));
+
+        assertEquals(Arrays.asList(
+                "DELETE FROM `pet` WHERE `id` = 1;",
+                "INSERT INTO `pet` (`id`, `name`) VALUES (2, 'Claws');"),
+                statements);
+    }
+
+    /**
+     * Test of merge method, of class TableDataDiff, with rows out of key order.
+     */
+    public void testMergeOutOfOrder() {
+        final TableDataDiff diff = createDiff();
+        try {
+            diff.merge(rows(PetTable.row(2, "Claws"), PetTable.row(1, "Fluffy")), rows(),
+                    new RowStatementWriter(diff.getFormat(), new StatementList()));
+            fail("Expected SQLException");
+        } catch (SQLException ex) {
+            //Expected
+        }
+    }
+}
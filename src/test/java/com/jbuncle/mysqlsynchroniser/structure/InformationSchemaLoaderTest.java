@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class InformationSchemaLoaderTest extends TestCase {
+
+    public InformationSchemaLoaderTest(final String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of unquoteDefault method, of class InformationSchemaLoader.
+     */
+    public void testUnquoteDefault() {
+        assertNull(InformationSchemaLoader.unquoteDefault(null));
+        assertNull(InformationSchemaLoader.unquoteDefault("NULL"));
+        assertEquals("Rex", InformationSchemaLoader.unquoteDefault("'Rex'"));
+        assertEquals("NULL", InformationSchemaLoader.unquoteDefault("'NULL'"));
+        assertEquals("", InformationSchemaLoader.unquoteDefault("''"));
+        assertEquals("it's a\\b\nc", InformationSchemaLoader.unquoteDefault("'it''s a\\\\b\\nc'"));
+        assertEquals("4", InformationSchemaLoader.unquoteDefault("4"));
+        assertEquals("current_timestamp()", InformationSchemaLoader.unquoteDefault("current_timestamp()"));
+    }
+}
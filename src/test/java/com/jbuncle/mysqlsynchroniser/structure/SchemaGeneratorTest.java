@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import com.jbuncle.mysqlsynchroniser.structure.diff.DatabaseDiff;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SchemaGeneratorTest extends TestCase {
+
+    public SchemaGeneratorTest(final String testName) {
+        super(testName);
+    }
+
+    private static SchemaGenerator createGenerator() {
+        final SchemaGenerator generator = new SchemaGenerator(42);
+        generator.setTableCount(200);
+        generator.setColumnCount(2, 10);
+        return generator;
+    }
+
+    /**
+     * Test of generate method, of class SchemaGenerator.
+     */
+    public void testGenerate() {
+        final Database database = createGenerator().generate();
+
+        assertEquals(200, database.getTables().size());
+        for (final Table table : database.getTables().values()) {
+            assertNotNull(table.getIndex("PRIMARY"));
+            assertTrue(table.getColumns().size() >= 3 && table.getColumns().size() <= 11);
+        }
+        assertEquals(database, createGenerator().generate());
+    }
+
+    /**
+     * Test of mutate method, of class SchemaGenerator.
+     */
+    public void testMutate() {
+        final SchemaGenerator generator = createGenerator();
+        generator.setMutationRate(0.5);
+        generator.setTableDropRate(0.05);
+        final Database source = generator.generate();
+        final Database target = generator.mutate(source);
+
+        assertTrue(target.getTables().size() < source.getTables().size());
+        int changed = 0;
+        for (final Table table : target.getTables().values()) {
+            if (!table.equals(source.getTables().get(table.getTableName()))) {
+                changed++;
+            }
+        }
+        assertTrue(changed > 50);
+        assertFalse(new DatabaseDiff(source, target).diff().isEmpty());
+    }
+
+    /**
+     * Test of getCreateStatements method, of class SchemaGenerator.
+     */
+    public void testGetCreateStatements() {
+        final Database database = createGenerator().generate();
+        final List<String> statements = SchemaGenerator.getCreateStatements(database);
+
+        assertEquals(200, statements.size());
+        assertTrue(statements.get(0).startsWith("CREATE TABLE `table_0` ("));
+    }
+
+    /**
+     * Test of generate and mutate methods, of class SchemaGenerator, giving columns the keys and defaults the
+     * server would report.
+     */
+    public void testServerFormat() {
+        final SchemaGenerator generator = createGenerator();
+        generator.setColumnTypes(Collections.singletonMap("decimal(10,2)", 1));
+        generator.setNullableRate(0);
+        generator.setIndexes(3, 2, 0.5);
+        generator.setMutationRate(1);
+        final Database source = generator.generate();
+        final Database target = generator.mutate(source);
+
+        int keyed = 0;
+        for (final Database database : new Database[]{source, target}) {
+            for (final Table table : database.getTables().values()) {
+                final Map<String, String> keys = new LinkedHashMap<>();
+                for (final Index index : table.getIndexes()) {
+                    final String first = index.getColumnNames().get(0);
+                    if (index.isPrimaryKey()) {
+                        keys.put(first, "PRI");
+                    } else if (!index.isNonUnique() && index.getColumnNames().size() == 1) {
+                        keys.put(first, "UNI");
+                    } else if (!keys.containsKey(first)) {
+                        keys.put(first, "MUL");
+                    }
+                }
+                for (final Column column : table.getColumns()) {
+                    final String key = keys.get(column.getColumnName());
+                    assertEquals(key == null ? "" : key, column.getKey());
+                    if (key != null && !key.equals("PRI")) {
+                        keyed++;
+                    }
+                    if (!column.getColumnName().equals("id")) {
+                        assertEquals("0.00", column.getDefaultValue());
+                    }
+                }
+            }
+        }
+        assertTrue(keyed > 0);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKey;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.TableOptions;
+import com.jbuncle.mysqlsynchroniser.structure.objects.View;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SchemaSnapshotTest extends TestCase {
+
+    public SchemaSnapshotTest(final String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of write and read methods, of class SchemaSnapshot.
+     *
+     * @throws java.lang.Exception
+     */
+    public void testWriteRead() throws Exception {
+        final Map<String, Table> tables = new HashMap<>();
+        tables.put("pet", new Table("pet",
+                Arrays.asList(
+                        new Column("name", "varchar(20)", false, "PRI", null, "", "utf8mb4_unicode_ci", "Pet name"),
+                        new Column("legs", "int(11)", true, "MUL", "4", "", null, ""),
+                        new Column("label", "varchar(31)", true, "", null, "VIRTUAL GENERATED", null, "",
+                                "concat(`name`,' ',`legs`)")),
+                Arrays.asList(
+                        new Index("pet", false, "PRIMARY", Arrays.asList("name")),
+                        new Index("pet", true, "legs", Arrays.asList("legs", "name"), Arrays.asList(null, 10), "BTREE")),
+                new TableOptions("InnoDB", "utf8mb4_unicode_ci", "Dynamic", null, "Pets"),
+                Arrays.asList(new ForeignKey("pet_owner", Arrays.asList("owner"), null, "owner", Arrays.asList("id"),
+                        "CASCADE", "RESTRICT"))));
+        final Map<String, View> views = new HashMap<>();
+        views.put("pets", new View("pets", "CREATE VIEW `pets` AS SELECT * FROM `pet`"));
+        final Database database = new Database(tables, views);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SchemaSnapshot.write(database, out);
+        final Database result = SchemaSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(tables.get("pet"), result.getTables().get("pet"));
+        final TableOptions options = result.getTables().get("pet").getOptions();
+        assertEquals("InnoDB", options.getEngine());
+        assertEquals("utf8mb4", options.getCharacterSet());
+        assertNull(options.getAutoIncrement());
+        assertEquals("Pets", options.getComment());
+        assertEquals("concat(`name`,' ',`legs`)",
+                result.getTables().get("pet").getColumn("label").getGenerationExpression());
+        assertEquals(Arrays.asList(null, 10), result.getTables().get("pet").getIndex("legs").getSubParts());
+        assertEquals(tables.get("pet").getForeignKeys().get(0).getDefinition(),
+                result.getTables().get("pet").getForeignKeys().get(0).getDefinition());
+        assertEquals(1, result.getViews().size());
+        assertEquals(views.get("pets").getCreateStatement(), result.getViews().get("pets").getCreateStatement());
+    }
+
+    /**
+     * Test of read method, of class SchemaSnapshot, for data that isn't a snapshot.
+     */
+    public void testReadInvalid() {
+        try {
+            SchemaSnapshot.read(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+            fail("Expected IOException");
+        } catch (IOException ex) {
+            //Expected
+        }
+    }
+
+    /**
+     * Test of read method, of class SchemaSnapshot, for a snapshot from an earlier format.
+     */
+    public void testReadOldVersion() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeInt(0x4D595353);
+            data.writeInt(2);
+            data.writeInt(0);
+            data.writeInt(0);
+        }
+        try {
+            SchemaSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+            fail("Expected IOException");
+        } catch (IOException ex) {
+            assertEquals("Unsupported schema snapshot version 2", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test of read method, of class SchemaSnapshot, for a snapshot claiming a huge string.
+     */
+    public void testReadCorrupt() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeInt(0x4D595353);
+            data.writeInt(4);
+            data.writeInt(1);
+            data.writeInt(Integer.MAX_VALUE);
+        }
+        try {
+            SchemaSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+            fail("Expected IOException");
+        } catch (IOException ex) {
+            //Expected
+        }
+    }
+
+}
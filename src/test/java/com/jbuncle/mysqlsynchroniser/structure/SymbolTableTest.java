@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class SymbolTableTest extends TestCase {
+
+    public SymbolTableTest(final String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of intern method, of class SymbolTable.
+     */
+    public void testIntern() {
+        final SymbolTable symbols = new SymbolTable();
+        final String first = symbols.intern(new String("utf8mb4_unicode_ci"));
+        assertSame(first, symbols.intern(new String("utf8mb4_unicode_ci")));
+        assertNull(symbols.intern(null));
+        assertEquals(1, symbols.size());
+    }
+
+    /**
+     * Test of intern method, of class SymbolTable, once the table is full.
+     */
+    public void testInternBounded() {
+        final SymbolTable symbols = new SymbolTable(10);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("symbol" + i, symbols.intern("symbol" + i));
+            assertTrue(symbols.size() <= 10);
+        }
+        //Still canonicalises after being emptied
+        final String last = symbols.intern(new String("symbol99"));
+        assertSame(last, symbols.intern(new String("symbol99")));
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.diff;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class AppendableStatementSinkTest extends TestCase {
+
+    public AppendableStatementSinkTest(final String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of append method, of class AppendableStatementSink.
+     */
+    public void testAppend() throws IOException {
+        final StringWriter out = new StringWriter();
+        try (final AppendableStatementSink sink = new AppendableStatementSink(out)) {
+            sink.append("DROP TABLE pet;");
+            sink.append("DROP VIEW IF EXISTS pets;");
+        }
+        assertEquals("DROP TABLE pet;\nDROP VIEW IF EXISTS pets;\n", out.toString());
+    }
+
+    /**
+     * Test of open method, of class AppendableStatementSink.
+     */
+    public void testOpen() throws IOException {
+        final File file = File.createTempFile("script", ".sql");
+        try {
+            try (final AppendableStatementSink sink = AppendableStatementSink.open(file.toPath())) {
+                sink.append("DROP TABLE pet;");
+            }
+            assertEquals(Arrays.asList("DROP TABLE pet;"), Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Test of flush method, of class AppendableStatementSink, after a failed write.
+     */
+    public void testError() {
+        final AppendableStatementSink sink = new AppendableStatementSink(new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        sink.append("DROP TABLE pet;");
+        assertEquals("Disk full", sink.getError().getMessage());
+        try {
+            sink.flush();
+            fail("Expected IOException");
+        } catch (IOException ex) {
+            assertSame(sink.getError(), ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.diff;
+
+import com.jbuncle.mysqlsynchroniser.PetTable;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Database;
+import com.jbuncle.mysqlsynchroniser.structure.objects.ForeignKey;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import com.jbuncle.mysqlsynchroniser.structure.objects.TableOptions;
+import com.jbuncle.mysqlsynchroniser.structure.objects.View;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class DatabaseDiffTest extends TestCase {
+
+    public DatabaseDiffTest(final String testName) {
+        super(testName);
+    }
+
+    private static Database createDatabase(final Table... tables) {
+        final Map<String, Table> tableMap = new HashMap<>();
+        for (final Table table : tables) {
+            tableMap.put(table.getTableName(), table);
+        }
+        return new Database(tableMap, new HashMap<String, View>());
+    }
+
+    /**
+     * Test of diff method, of class DatabaseDiff, creating and dropping tables from the model.
+     */
+    public void testDiff() {
+        final Table pet = new Table(PetTable.NAME,
+                Arrays.asList(
+                        new Column("id", "int(11)", false, "PRI", null, "auto_increment", null, ""),
+                        new Column("name", "varchar(20)", true, "MUL", "Rex", "", "utf8mb4_unicode_ci", "Pet name")),
+                Arrays.asList(
+                        PetTable.index("name", true, "name"),
+                        PetTable.index("PRIMARY", false, "id")),
+                new TableOptions("InnoDB", "utf8mb4_unicode_ci", "Dynamic", 5L, "All the pets"));
+        final Table owner = new Table("owner", Arrays.asList(PetTable.id()), Arrays.<Index>asList());
+
+        final List<String> result = new DatabaseDiff(createDatabase(pet), createDatabase(owner)).diff();
+
+        assertEquals(Arrays.asList(
+                "CREATE TABLE `pet` (\n"
+                + "  `id` int(11) NOT NULL auto_increment COMMENT '',\n"
+                + "  `name` varchar(20) COLLATE utf8mb4_unicode_ci NULL DEFAULT 'Rex'  COMMENT 'Pet name',\n"
+                + "  PRIMARY KEY (`id`),\n"
+                + "  KEY `name` (`name`)\n"
+                + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci "
+                + "ROW_FORMAT=Dynamic COMMENT='All the pets';",
+                "DROP TABLE owner;"
+        ), result);
+    }
+
+    /**
+     * Test of diff method, of class DatabaseDiff, creating a table with index prefixes, a FULLTEXT index, a foreign
+     * key and expression defaults from the model.
+     */
+    public void testDiffCreateDefinitions() {
+        final Table pet = new Table(PetTable.NAME,
+                Arrays.asList(
+                        new Column("owner", "int(11)", false, "MUL", null, "", null, ""),
+                        new Column("notes", "text", true, "MUL", null, "", "utf8mb4_unicode_ci", "Owner's notes"),
+                        new Column("born", "timestamp", false, "", "CURRENT_TIMESTAMP",
+                                "DEFAULT_GENERATED on update CURRENT_TIMESTAMP", null, ""),
+                        new Column("tag", "varchar(36)", false, "", "uuid()", "DEFAULT_GENERATED", null, ""),
+                        new Column("flag", "bit(1)", false, "", "b'0'", "", null, ""),
+                        new Column("kind", "varchar(10)", false, "", "it's", "", null, "")),
+                Arrays.asList(
+                        new Index(PetTable.NAME, true, "notes", Arrays.asList("owner", "notes"), Arrays.asList(null, 20),
+                                "BTREE"),
+                        new Index(PetTable.NAME, true, "search", Arrays.asList("notes"), Arrays.asList((Integer) null),
+                                "FULLTEXT")),
+                null,
+                Arrays.asList(new ForeignKey("pet_owner", Arrays.asList("owner"), null, "owner", Arrays.asList("id"),
+                        "RESTRICT", "CASCADE")));
+
+        final List<String> result = new DatabaseDiff(createDatabase(pet), createDatabase()).diff();
+
+        assertEquals(Arrays.asList(
+                "CREATE TABLE `pet` (\n"
+                + "  `owner` int(11) NOT NULL  COMMENT '',\n"
+                + "  `notes` text COLLATE utf8mb4_unicode_ci NULL  COMMENT 'Owner''s notes',\n"
+                + "  `born` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP on update CURRENT_TIMESTAMP COMMENT '',\n"
+                + "  `tag` varchar(36) NOT NULL DEFAULT (uuid())  COMMENT '',\n"
+                + "  `flag` bit(1) NOT NULL DEFAULT b'0'  COMMENT '',\n"
+                + "  `kind` varchar(10) NOT NULL DEFAULT 'it''s'  COMMENT '',\n"
+                + "  KEY `notes` (`owner`, `notes`(20)),\n"
+                + "  FULLTEXT KEY `search` (`notes`),\n"
+                + "  CONSTRAINT `pet_owner` FOREIGN KEY (`owner`) REFERENCES `owner` (`id`) ON DELETE CASCADE\n"
+                + ");"
+        ), result);
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.diff;
+
+import com.jbuncle.mysqlsynchroniser.PetTable;
+import com.jbuncle.mysqlsynchroniser.structure.ServerVersion;
+import com.jbuncle.mysqlsynchroniser.structure.diff.builder.OnlineDdl;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Column;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Index;
+import com.jbuncle.mysqlsynchroniser.structure.objects.Table;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class TableDiffTest extends TestCase {
+
+    public TableDiffTest(final String testName) {
+        super(testName);
+    }
+
+    private static Table createSource() {
+        return PetTable.create(
+                Arrays.asList(
+                        PetTable.id(),
+                        PetTable.column("name", "varchar(20)", false),
+                        PetTable.column("owner", "varchar(20)", true)),
+                PetTable.index("PRIMARY", false, "id"),
+                PetTable.index("owner", true, "owner", "name"));
+    }
+
+    private static Table createTarget() {
+        return PetTable.create(
+                Arrays.asList(
+                        PetTable.id(),
+                        PetTable.column("name", "varchar(10)", false),
+                        PetTable.column("legs", "int(11)", true)),
+                PetTable.index("PRIMARY", false, "id"),
+                PetTable.index("owner", true, "name"));
+    }
+
+    /**
+     * Test of diff method, of class TableDiff.
+     */
+    public void testDiff() {
+        final List<String> result = TableDiff.diff(createSource(), createTarget());
+
+        assertEquals(Arrays.asList(
+                "ALTER TABLE `pet` CHANGE `name` `name` varchar(20) NOT NULL  COMMENT '';",
+                "ALTER TABLE `pet` ADD `owner` varchar(20) NULL  COMMENT '' AFTER `name`;",
+                "ALTER TABLE `pet` DROP `legs`;",
+                "ALTER TABLE `pet` DROP INDEX `owner`;",
+                "ALTER TABLE `pet` ADD INDEX `owner` (`owner`, `name`);"
+        ), result);
+    }
+
+    /**
+     * Test of diff method, of class TableDiff, combining alter statements.
+     */
+    public void testDiffCombined() {
+        final List<String> result = TableDiff.diff(createSource(), createTarget(), true);
+
+        assertEquals(Arrays.asList(
+                "ALTER TABLE `pet` "
+                + "CHANGE `name` `name` varchar(20) NOT NULL  COMMENT '', "
+                + "ADD `owner` varchar(20) NULL  COMMENT '' AFTER `name`, "
+                + "DROP `legs`, "
+                + "DROP INDEX `owner`, "
+                + "ADD INDEX `owner` (`owner`, `name`);"
+        ), result);
+    }
+
+    /**
+     * Test of diff method, of class TableDiff, for identical tables.
+     */
+    public void testDiffSame() {
+        assertTrue(TableDiff.diff(createSource(), createSource(), true).isEmpty());
+    }
+
+    /**
+     * Test of diff method, of class TableDiff, for a generated column.
+     */
+    public void testDiffGeneratedColumn() {
+        final List<Column> columns = new ArrayList<>(createSource().getColumns());
+        columns.add(new Column("label", "varchar(41)", true, "", null, "STORED GENERATED", null, "",
+                "concat(`name`,' ',`owner`)"));
+        final Table source = new Table("pet", columns, createSource().getIndexes());
+
+        assertEquals(Arrays.asList(
+                "ALTER TABLE `pet` ADD `label` varchar(41) AS (concat(`name`,' ',`owner`)) STORED  COMMENT '';"
+        ), TableDiff.diff(source, createSource()));
+
+        final List<Column> changed = new ArrayList<>(columns);
+        changed.set(3, new Column("label", "varchar(41)", true, "", null, "STORED GENERATED", null, "",
+                "concat(`owner`,' ',`name`)"));
+        assertEquals(Arrays.asList(
+                "ALTER TABLE `pet` CHANGE `label` `label` varchar(41) AS (concat(`owner`,' ',`name`)) STORED  "
+                + "COMMENT '';"
+        ), TableDiff.diff(new Table("pet", changed, createSource().getIndexes()), source));
+    }
+
+    /**
+     * Test of diff method, of class TableDiff, with online DDL clauses.
+     */
+    public void testDiffOnlineDdl() {
+        final Table target = PetTable.create(PetTable.id());
+        final Table source = PetTable.create(
+                Arrays.asList(PetTable.id(), PetTable.column("name", "varchar(20)", false)),
+                PetTable.index("PRIMARY", false, "id"),
+                PetTable.index("name", true, "name"));
+
+        final OnlineDdl mysql8 = new OnlineDdl(ServerVersion.parse("8.0.20"));
+        assertEquals(Arrays.asList(
+                "ALTER TABLE `pet` ADD `name` varchar(20) NOT NULL  COMMENT '', ALGORITHM=INSTANT;",
+                "ALTER TABLE `pet` ADD INDEX `name` (`name`), ALGORITHM=INPLACE, LOCK=NONE;"
+        ), TableDiff.diff(source, target, false, mysql8));
+
+        assertEquals(Arrays.asList(
+                "ALTER TABLE `pet` "
+                + "ADD `name` varchar(20) NOT NULL  COMMENT '', "
+                + "ADD INDEX `name` (`name`), "
+                + "ALGORITHM=INPLACE, LOCK=NONE;"
+        ), TableDiff.diff(source, target, true, mysql8));
+    }
+
+    /**
+     * Test of diff method, of class TableDiff, with online DDL clauses for column changes.
+     */
+    public void testDiffOnlineDdlColumnChanges() {
+        final Table target = PetTable.create(
+                PetTable.id(),
+                PetTable.column("name", "varchar(20)", false, "utf8mb4_general_ci"),
+                PetTable.column("owner", "varchar(20)", false, "utf8mb4_general_ci"),
+                PetTable.column("legs", "int(11)", false));
+        final Table source = PetTable.create(
+                Arrays.asList(
+                        PetTable.id(),
+                        PetTable.column("name", "varchar(60)", true, "utf8mb4_general_ci"),
+                        PetTable.column("owner", "varchar(64)", false, "utf8mb4_general_ci"),
+                        PetTable.column("legs", "bigint(20)", false)),
+                PetTable.index("PRIMARY", false, "id"),
+                new Index("pet", true, "search", Arrays.asList("name"), Arrays.asList((Integer) null), "FULLTEXT"));
+
+        final OnlineDdl mysql57 = new OnlineDdl(ServerVersion.parse("5.7.30-log"));
+        assertEquals(Arrays.asList(
+                //240 bytes is still under 256, so this is done in place
+                "ALTER TABLE `pet` CHANGE `name` `name` varchar(60) COLLATE utf8mb4_general_ci NULL  COMMENT '', "
+                + "ALGORITHM=INPLACE, LOCK=NONE;",
+                //256 bytes needs a two byte length
+                "ALTER TABLE `pet` CHANGE `owner` `owner` varchar(64) COLLATE utf8mb4_general_ci NOT NULL  COMMENT '';",
+                "ALTER TABLE `pet` CHANGE `legs` `legs` bigint(20) NOT NULL  COMMENT '';",
+                "ALTER TABLE `pet` ADD FULLTEXT INDEX `search` (`name`), ALGORITHM=INPLACE, LOCK=SHARED;"
+        ), TableDiff.diff(source, target, false, mysql57));
+
+        final OnlineDdl mysql56 = new OnlineDdl(ServerVersion.parse("5.6.51"));
+        assertEquals("ALTER TABLE `pet` CHANGE `name` `name` varchar(60) COLLATE utf8mb4_general_ci NULL  COMMENT '';",
+                TableDiff.diff(source, target, false, mysql56).get(0));
+        assertTrue(TableDiff.diff(source, target, true, mysql57).get(0).endsWith(" COMMENT '', "
+                + "ADD FULLTEXT INDEX `search` (`name`);"));
+    }
+
+    /**
+     * Test of diff method, of class TableDiff, with online DDL clauses when a column is made NULL.
+     */
+    public void testDiffOnlineDdlNullable() {
+        final OnlineDdl mysql57 = new OnlineDdl(ServerVersion.parse("5.7.30-log"));
+        final Table target = PetTable.create(PetTable.column("name", "varchar(20)", false));
+        final Table source = PetTable.create(PetTable.column("name", "varchar(20)", true));
+
+        assertEquals(Arrays.asList(
+                "ALTER TABLE `pet` CHANGE `name` `name` varchar(20) NULL  COMMENT '', ALGORITHM=INPLACE, LOCK=NONE;"),
+                TableDiff.diff(source, target, false, mysql57));
+        assertEquals(Arrays.asList("ALTER TABLE `pet` CHANGE `name` `name` varchar(20) NOT NULL  COMMENT '';"),
+                TableDiff.diff(target, source, false, mysql57));
+    }
+
+    /**
+     * Test of diff method, of class TableDiff, for servers without online DDL.
+     */
+    public void testDiffOnlineDdlUnsupported() {
+        final OnlineDdl mysql55 = new OnlineDdl(ServerVersion.parse("5.5.62"));
+        assertEquals(TableDiff.diff(createSource(), createTarget()),
+                TableDiff.diff(createSource(), createTarget(), false, mysql55));
+    }
+
+}
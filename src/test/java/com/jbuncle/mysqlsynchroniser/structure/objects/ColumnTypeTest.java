@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.objects;
+
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class ColumnTypeTest extends TestCase {
+
+    public ColumnTypeTest(final String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of parse method, of class ColumnType.
+     */
+    public void testParse() {
+        final ColumnType varchar = ColumnType.parse("varchar(255)");
+        assertEquals("varchar", varchar.getBaseType());
+        assertEquals(Integer.valueOf(255), varchar.getLength());
+        assertNull(varchar.getScale());
+
+        final ColumnType decimal = ColumnType.parse("decimal(10,2) unsigned zerofill");
+        assertEquals("decimal", decimal.getBaseType());
+        assertEquals(Integer.valueOf(10), decimal.getLength());
+        assertEquals(Integer.valueOf(2), decimal.getScale());
+        assertTrue(decimal.isUnsigned());
+        assertTrue(decimal.isZerofill());
+
+        final ColumnType text = ColumnType.parse("text");
+        assertEquals("text", text.getBaseType());
+        assertNull(text.getLength());
+        assertFalse(text.isUnsigned());
+    }
+
+    /**
+     * Test of parse method, of class ColumnType, with enum values.
+     */
+    public void testParseEnum() {
+        final ColumnType type = ColumnType.parse("enum('a','b,c','it''s (x)')");
+        assertEquals("enum", type.getBaseType());
+        assertEquals(Arrays.asList("a", "b,c", "it's (x)"), type.getValues());
+    }
+
+    /**
+     * Test of parse method, of class ColumnType, with integer display widths.
+     */
+    public void testParseDisplayWidth() {
+        assertEquals(ColumnType.parse("int"), ColumnType.parse("int(11)"));
+        assertEquals(ColumnType.parse("int unsigned"), ColumnType.parse("int(10) unsigned"));
+        assertEquals(ColumnType.parse("bigint unsigned"), ColumnType.parse("bigint(20) unsigned"));
+        assertNull(ColumnType.parse("smallint(6)").getLength());
+        assertEquals(Integer.valueOf(1), ColumnType.parse("tinyint(1)").getLength());
+        assertFalse(ColumnType.parse("tinyint").equals(ColumnType.parse("tinyint(1)")));
+        assertEquals(ColumnType.parse("tinyint"), ColumnType.parse("tinyint(4)"));
+        assertEquals(Integer.valueOf(5), ColumnType.parse("int(5) unsigned zerofill").getLength());
+    }
+
+    /**
+     * Test of valueOf method, of class ColumnType.
+     */
+    public void testValueOf() {
+        assertSame(ColumnType.valueOf("int(11)"), ColumnType.valueOf("int(11)"));
+        assertEquals(ColumnType.valueOf("INT(11)"), ColumnType.valueOf("int(11)"));
+        assertFalse(ColumnType.valueOf("int(11)").equals(ColumnType.valueOf("int(11) unsigned")));
+        assertFalse(ColumnType.valueOf("enum('a')").equals(ColumnType.valueOf("enum('A')")));
+        assertEquals("varchar(", ColumnType.valueOf("varchar(").getBaseType());
+        assertNull(ColumnType.valueOf(null));
+    }
+}
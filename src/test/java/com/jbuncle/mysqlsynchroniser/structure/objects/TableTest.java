@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 James Buncle <jbuncle@hotmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jbuncle.mysqlsynchroniser.structure.objects;
+
+import com.jbuncle.mysqlsynchroniser.PetTable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author James Buncle <jbuncle@hotmail.com>
+ */
+public class TableTest extends TestCase {
+
+    public TableTest(final String testName) {
+        super(testName);
+    }
+
+    private static Table createTable(final int columns) {
+        final List<Column> columnList = new ArrayList<>(columns);
+        for (int i = 0; i < columns; i++) {
+            columnList.add(PetTable.column("column" + i, "int(11)", false));
+        }
+        return PetTable.create(columnList, PetTable.index("PRIMARY", false, "column0"));
+    }
+
+    /**
+     * Test of equals and hashCode methods, of class Table.
+     */
+    public void testEqualsIgnoresColumnOrder() {
+        final Table table = createTable(3);
+        final List<Column> reversed = new ArrayList<>(table.getColumns());
+        Collections.reverse(reversed);
+        final Table other = new Table(PetTable.NAME, reversed, table.getIndexes());
+
+        assertEquals(table, other);
+        assertEquals(table.hashCode(), other.hashCode());
+    }
+
+    /**
+     * Test of equals method, of class Table.
+     */
+    public void testNotEquals() {
+        final Table table = createTable(3);
+        final List<Column> columns = new ArrayList<>(table.getColumns());
+        columns.set(1, PetTable.column("column1", "bigint(20)", false));
+        final Table other = new Table(PetTable.NAME, columns, table.getIndexes());
+
+        assertFalse(table.equals(other));
+        assertFalse(createTable(3).equals(createTable(4)));
+    }
+
+    /**
+     * Test of equals method, of class Table, with a large number of columns.
+     */
+    public void testEqualsLargeTable() {
+        assertEquals(createTable(100000), createTable(100000));
+    }
+
+    /**
+     * Test of getColumn and getIndex methods, of class Table.
+     */
+    public void testGetColumnAndIndex() {
+        final Table table = createTable(3);
+
+        assertEquals("column2", table.getColumn("column2").getName());
+        assertNull(table.getColumn("column3"));
+        assertEquals("PRIMARY", table.getIndex("PRIMARY").getKeyName());
+        assertNull(table.getIndex("missing"));
+    }
+}